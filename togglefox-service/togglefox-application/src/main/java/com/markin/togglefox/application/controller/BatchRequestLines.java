@@ -0,0 +1,108 @@
+package com.markin.togglefox.application.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.markin.togglefox.application.dto.request.EvaluationRequestDto;
+import com.markin.togglefox.application.dto.response.BatchEvaluationErrorDto;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+/**
+ * NDJSON batch request body, read one line at a time.
+ *
+ * Iterates over a run of valid requests and ends at the first line that cannot be evaluated.
+ * That line is handed out by {@link #takeRejected()}, after which iteration resumes with the
+ * next line, so results and errors can be written in input order.
+ */
+class BatchRequestLines implements Iterator<EvaluationRequestDto> {
+
+    private final BufferedReader reader;
+    private final ObjectReader requestReader;
+
+    private long lineNumber;
+    private EvaluationRequestDto next;
+    private BatchEvaluationErrorDto rejected;
+    private boolean exhausted;
+
+    BatchRequestLines(BufferedReader reader, ObjectReader requestReader) {
+        this.reader = reader;
+        this.requestReader = requestReader;
+    }
+
+    @Override
+    public boolean hasNext() {
+        advance();
+        return next != null;
+    }
+
+    @Override
+    public EvaluationRequestDto next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        EvaluationRequestDto request = next;
+        next = null;
+        return request;
+    }
+
+    /**
+     * Whether any line is left, valid or not
+     */
+    boolean hasMoreLines() {
+        advance();
+        return next != null || rejected != null;
+    }
+
+    /**
+     * The line that ended the current run of valid requests, if any
+     */
+    Optional<BatchEvaluationErrorDto> takeRejected() {
+        BatchEvaluationErrorDto error = rejected;
+        rejected = null;
+        return Optional.ofNullable(error);
+    }
+
+    private void advance() {
+        while (next == null && rejected == null && !exhausted) {
+            String line = readLine();
+            if (line == null) {
+                exhausted = true;
+                return;
+            }
+            lineNumber++;
+            if (!line.isBlank()) {
+                parse(line);
+            }
+        }
+    }
+
+    private void parse(String line) {
+        EvaluationRequestDto request;
+        try {
+            request = requestReader.readValue(line);
+        } catch (JsonProcessingException e) {
+            rejected = new BatchEvaluationErrorDto(lineNumber, "Malformed evaluation request: " + e.getOriginalMessage());
+            return;
+        }
+        if (request == null) {
+            rejected = new BatchEvaluationErrorDto(lineNumber, "Evaluation request cannot be null");
+        } else if (request.getUserId() != null && request.getUserId().isBlank()) {
+            rejected = new BatchEvaluationErrorDto(lineNumber, "User ID cannot be blank");
+        } else {
+            next = request;
+        }
+    }
+
+    private String readLine() {
+        try {
+            return reader.readLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read batch evaluation request", e);
+        }
+    }
+}
@@ -2,15 +2,32 @@ package com.markin.togglefox.application.controller;
 
 import com.markin.togglefox.application.dto.request.EvaluationRequestDto;
 import com.markin.togglefox.application.dto.response.FlagEvaluationResponseDto;
+import com.markin.togglefox.application.dto.response.FlagsEvaluationResponseDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.markin.togglefox.application.mapper.FeatureFlagDtoMapper;
+import com.markin.togglefox.domain.model.Environment;
 import com.markin.togglefox.domain.model.FlagEvaluationResult;
 import com.markin.togglefox.port.in.FlagEvaluationUseCase;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/v1/evaluate")
@@ -19,11 +36,14 @@ public class FlagEvaluationController {
 
     private final FlagEvaluationUseCase evaluationUseCase;
     private final FeatureFlagDtoMapper mapper;
+    private final ObjectMapper objectMapper;
 
     public FlagEvaluationController(FlagEvaluationUseCase evaluationUseCase,
-                                    FeatureFlagDtoMapper mapper) {
+                                    FeatureFlagDtoMapper mapper,
+                                    ObjectMapper objectMapper) {
         this.evaluationUseCase = evaluationUseCase;
         this.mapper = mapper;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping("/{flagName}")
@@ -53,4 +73,77 @@ public class FlagEvaluationController {
 
         return ResponseEntity.ok(response);
     }
+
+    @PostMapping
+    @Operation(summary = "Evaluate all enabled feature flags in an environment for one user")
+    public ResponseEntity<FlagsEvaluationResponseDto> evaluateAllFlags(
+            @Parameter(description = "Environment") @RequestParam String environment,
+            @Valid @RequestBody EvaluationRequestDto request) {
+
+        var query = mapper.toEvaluateAllQuery(environment, request);
+        Map<String, FlagEvaluationResult> results = evaluationUseCase.evaluateAllFlags(query);
+        FlagsEvaluationResponseDto response = mapper.toEvaluationsResponse(environment, results);
+
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping
+    @Operation(summary = "Evaluate all enabled feature flags (GET method for simple cases)")
+    public ResponseEntity<FlagsEvaluationResponseDto> evaluateAllFlagsSimple(
+            @Parameter(description = "Environment") @RequestParam String environment,
+            @Parameter(description = "User ID") @RequestParam(required = false) String userId) {
+
+        var query = mapper.toEvaluateAllQuery(environment, userId);
+        Map<String, FlagEvaluationResult> results = evaluationUseCase.evaluateAllFlags(query);
+        FlagsEvaluationResponseDto response = mapper.toEvaluationsResponse(environment, results);
+
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping(value = "/batch",
+            consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Evaluate feature flags for many users",
+            description = "Streams one evaluation request per NDJSON line in and one result per line out. "
+                    + "A line that cannot be evaluated is answered in place with an error object.")
+    public ResponseEntity<StreamingResponseBody> evaluateBatch(
+            @Parameter(description = "Environment") @RequestParam String environment,
+            @Parameter(description = "Feature flag names to evaluate") @RequestParam List<String> flags,
+            InputStream requestBody) {
+
+        // Checked before streaming starts, while a bad request can still get a 400
+        Environment.of(environment);
+        ObjectReader requestReader = objectMapper.readerFor(EvaluationRequestDto.class);
+
+        StreamingResponseBody responseBody = outputStream -> {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(requestBody, StandardCharsets.UTF_8));
+                 SequenceWriter writer = objectMapper
+                         .writer()
+                         .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                         .withRootValueSeparator("\n")
+                         .writeValues(outputStream)) {
+
+                // Evaluate each run of valid lines, then report the line that ended it
+                BatchRequestLines requests = new BatchRequestLines(reader, requestReader);
+                while (requests.hasMoreLines()) {
+                    var query = mapper.toBatchQuery(environment, flags, requests);
+                    evaluationUseCase.evaluateBatch(query, (subject, results) ->
+                            writeLine(writer, mapper.toUserEvaluationsResponse(subject, results)));
+                    requests.takeRejected().ifPresent(error -> writeLine(writer, error));
+                }
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(responseBody);
+    }
+
+    private void writeLine(SequenceWriter writer, Object line) {
+        try {
+            writer.write(line);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write batch evaluation result", e);
+        }
+    }
 }
@@ -0,0 +1,39 @@
+package com.markin.togglefox.application.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Batch evaluation line that could not be evaluated (one NDJSON line in place of its result)")
+public class BatchEvaluationErrorDto {
+
+    @Schema(description = "Line number of the rejected request, starting at 1", example = "3")
+    private long line;
+
+    @Schema(description = "Why the request was rejected", example = "User ID cannot be blank")
+    private String error;
+
+    // Default constructor
+    public BatchEvaluationErrorDto() {
+    }
+
+    public BatchEvaluationErrorDto(long line, String error) {
+        this.line = line;
+        this.error = error;
+    }
+
+    // Getters and setters
+    public long getLine() {
+        return line;
+    }
+
+    public void setLine(long line) {
+        this.line = line;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -14,6 +14,9 @@ public class FlagEvaluationResponseDto {
     @Schema(description = "Whether the flag is enabled for this evaluation", example = "true")
     private boolean enabled;
 
+    @Schema(description = "Reason code for the evaluation result", example = "IN_ROLLOUT")
+    private String reasonCode;
+
     @Schema(description = "Reason for the evaluation result", example = "User in 25% rollout (hash: 15)")
     private String reason;
 
@@ -24,10 +27,12 @@ public class FlagEvaluationResponseDto {
     public FlagEvaluationResponseDto() {
     }
 
-    public FlagEvaluationResponseDto(String flagId, String flagName, boolean enabled, String reason, Object variation) {
+    public FlagEvaluationResponseDto(String flagId, String flagName, boolean enabled, String reasonCode,
+                                     String reason, Object variation) {
         this.flagId = flagId;
         this.flagName = flagName;
         this.enabled = enabled;
+        this.reasonCode = reasonCode;
         this.reason = reason;
         this.variation = variation;
     }
@@ -57,6 +62,14 @@ public class FlagEvaluationResponseDto {
         this.enabled = enabled;
     }
 
+    public String getReasonCode() {
+        return reasonCode;
+    }
+
+    public void setReasonCode(String reasonCode) {
+        this.reasonCode = reasonCode;
+    }
+
     public String getReason() {
         return reason;
     }
@@ -0,0 +1,42 @@
+package com.markin.togglefox.application.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.Map;
+
+@Schema(description = "Evaluation results for every enabled flag in an environment")
+public class FlagsEvaluationResponseDto {
+
+    @Schema(description = "Environment the flags were evaluated in", example = "production")
+    private String environment;
+
+    @Schema(description = "Evaluation result per flag name; flags that are disabled are omitted",
+            example = "{\"new-checkout-flow\": true, \"dark-mode\": false}")
+    private Map<String, Boolean> flags;
+
+    // Default constructor
+    public FlagsEvaluationResponseDto() {
+    }
+
+    public FlagsEvaluationResponseDto(String environment, Map<String, Boolean> flags) {
+        this.environment = environment;
+        this.flags = flags;
+    }
+
+    // Getters and setters
+    public String getEnvironment() {
+        return environment;
+    }
+
+    public void setEnvironment(String environment) {
+        this.environment = environment;
+    }
+
+    public Map<String, Boolean> getFlags() {
+        return flags;
+    }
+
+    public void setFlags(Map<String, Boolean> flags) {
+        this.flags = flags;
+    }
+}
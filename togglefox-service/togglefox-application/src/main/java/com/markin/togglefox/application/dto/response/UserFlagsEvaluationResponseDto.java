@@ -0,0 +1,42 @@
+package com.markin.togglefox.application.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.Map;
+
+@Schema(description = "Batch evaluation result for one user (one NDJSON line)")
+public class UserFlagsEvaluationResponseDto {
+
+    @Schema(description = "User ID the flags were evaluated for", example = "user-123")
+    private String userId;
+
+    @Schema(description = "Evaluation result per requested flag name",
+            example = "{\"new-checkout-flow\": true, \"dark-mode\": false}")
+    private Map<String, Boolean> flags;
+
+    // Default constructor
+    public UserFlagsEvaluationResponseDto() {
+    }
+
+    public UserFlagsEvaluationResponseDto(String userId, Map<String, Boolean> flags) {
+        this.userId = userId;
+        this.flags = flags;
+    }
+
+    // Getters and setters
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public Map<String, Boolean> getFlags() {
+        return flags;
+    }
+
+    public void setFlags(Map<String, Boolean> flags) {
+        this.flags = flags;
+    }
+}
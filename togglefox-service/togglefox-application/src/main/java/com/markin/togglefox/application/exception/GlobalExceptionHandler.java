@@ -1,5 +1,6 @@
 package com.markin.togglefox.application.exception;
 
+import com.markin.togglefox.snapshot.SnapshotUnavailableException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
@@ -48,6 +49,18 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(error);
     }
 
+    @ExceptionHandler(SnapshotUnavailableException.class)
+    public ResponseEntity<ApiError> handleSnapshotUnavailableException(SnapshotUnavailableException ex) {
+        log.warn(ex.getMessage());
+        ApiError error = new ApiError(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Service Unavailable",
+                "Flags for this environment are temporarily unavailable, retry later",
+                LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<ApiError> handleRuntimeException(RuntimeException ex) {
         ApiError error = new ApiError(
@@ -5,6 +5,8 @@ import com.markin.togglefox.application.dto.request.EvaluationRequestDto;
 import com.markin.togglefox.application.dto.request.UpdateStrategyRequestDto;
 import com.markin.togglefox.application.dto.response.FeatureFlagResponseDto;
 import com.markin.togglefox.application.dto.response.FlagEvaluationResponseDto;
+import com.markin.togglefox.application.dto.response.FlagsEvaluationResponseDto;
+import com.markin.togglefox.application.dto.response.UserFlagsEvaluationResponseDto;
 import com.markin.togglefox.domain.model.FeatureFlag;
 import com.markin.togglefox.domain.model.FlagEvaluationResult;
 import com.markin.togglefox.domain.strategy.AttributeBasedStrategy;
@@ -14,11 +16,16 @@ import com.markin.togglefox.domain.strategy.UserTargetingStrategy;
 import com.markin.togglefox.dto.command.CreateFlagCommand;
 import com.markin.togglefox.dto.command.EnableFlagCommand;
 import com.markin.togglefox.dto.command.UpdateStrategyCommand;
+import com.markin.togglefox.dto.query.EvaluateAllFlagsQuery;
+import com.markin.togglefox.dto.query.EvaluateBatchQuery;
 import com.markin.togglefox.dto.query.EvaluateFlagQuery;
+import com.markin.togglefox.dto.query.EvaluationSubject;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -80,6 +87,49 @@ public class FeatureFlagDtoMapper {
         );
     }
 
+    /**
+     * Map evaluation parameters to EvaluateAllFlagsQuery
+     */
+    public EvaluateAllFlagsQuery toEvaluateAllQuery(String environment, EvaluationRequestDto dto) {
+        return new EvaluateAllFlagsQuery(
+                environment,
+                dto.getUserId(),
+                dto.getAttributes() != null ? dto.getAttributes() : new HashMap<>()
+        );
+    }
+
+    /**
+     * Map evaluation parameters to EvaluateAllFlagsQuery (simple version)
+     */
+    public EvaluateAllFlagsQuery toEvaluateAllQuery(String environment, String userId) {
+        return new EvaluateAllFlagsQuery(
+                environment,
+                userId,
+                new HashMap<>()
+        );
+    }
+
+    /**
+     * Map a stream of evaluation requests to EvaluateBatchQuery.
+     * Requests are mapped lazily as the use case consumes them.
+     */
+    public EvaluateBatchQuery toBatchQuery(String environment, List<String> flagNames,
+                                           Iterator<EvaluationRequestDto> requests) {
+        Iterator<EvaluationSubject> subjects = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return requests.hasNext();
+            }
+
+            @Override
+            public EvaluationSubject next() {
+                EvaluationRequestDto dto = requests.next();
+                return new EvaluationSubject(dto.getUserId(), dto.getAttributes());
+            }
+        };
+        return new EvaluateBatchQuery(environment, flagNames, subjects);
+    }
+
     /**
      * Map FeatureFlag domain object to FeatureFlagResponseDto
      */
@@ -107,11 +157,32 @@ public class FeatureFlagDtoMapper {
                 result.getFlagId().getValue(),
                 null, // Flag name not available in result, could be added if needed
                 result.isEnabled(),
+                result.getReasonCode().name(),
                 result.getReason(),
                 result.getVariation()
         );
     }
 
+    /**
+     * Map per-flag evaluation results to the compact FlagsEvaluationResponseDto
+     */
+    public FlagsEvaluationResponseDto toEvaluationsResponse(String environment,
+                                                            Map<String, FlagEvaluationResult> results) {
+        Map<String, Boolean> flags = new HashMap<>(results.size() * 2);
+        results.forEach((flagName, result) -> flags.put(flagName, result.isEnabled()));
+        return new FlagsEvaluationResponseDto(environment, flags);
+    }
+
+    /**
+     * Map one user's batch results to UserFlagsEvaluationResponseDto
+     */
+    public UserFlagsEvaluationResponseDto toUserEvaluationsResponse(EvaluationSubject subject,
+                                                                    Map<String, FlagEvaluationResult> results) {
+        Map<String, Boolean> flags = new LinkedHashMap<>(results.size() * 2);
+        results.forEach((flagName, result) -> flags.put(flagName, result.isEnabled()));
+        return new UserFlagsEvaluationResponseDto(subject.userId(), flags);
+    }
+
     /**
      * Extract configuration from rollout strategy for response DTO
      */
@@ -122,11 +193,12 @@ public class FeatureFlagDtoMapper {
             case "PERCENTAGE":
                 PercentageRolloutStrategy percentageStrategy = (PercentageRolloutStrategy) strategy;
                 config.put("percentage", percentageStrategy.getPercentage());
+                config.put("bucketingAlgorithm", percentageStrategy.getBucketingAlgorithm().name());
                 break;
 
             case "USER_TARGETING":
                 UserTargetingStrategy userStrategy = (UserTargetingStrategy) strategy;
-                config.put("users", new ArrayList<>(userStrategy.getTargetedUsers()));
+                config.put("users", userStrategy.getTargetedUsers());
                 break;
 
             case "ATTRIBUTE_BASED":
@@ -1,29 +1,239 @@
 package com.markin.togglefox.config;
 
+import com.markin.togglefox.dataaccess.cache.CircuitBreakingCacheRepository;
+import com.markin.togglefox.dataaccess.cache.LocalCacheRepository;
+import com.markin.togglefox.dataaccess.cache.TieredCacheRepository;
 import com.markin.togglefox.dataaccess.messaging.DomainEventPublisher;
+import com.markin.togglefox.dataaccess.messaging.RedisFlagChangeNotifier;
+import com.markin.togglefox.dataaccess.repository.CacheRepositoryImpl;
+import com.markin.togglefox.dataaccess.repository.TrackingCacheRepository;
 import com.markin.togglefox.port.in.CreateFlagUseCase;
 import com.markin.togglefox.port.in.FlagEvaluationUseCase;
 import com.markin.togglefox.port.in.ManageFlagUseCase;
+import com.markin.togglefox.port.in.SyncFlagChangeUseCase;
+import com.markin.togglefox.port.in.WarmUpCacheUseCase;
 import com.markin.togglefox.port.out.CacheRepository;
+import com.markin.togglefox.port.out.EnvironmentCacheRepository;
 import com.markin.togglefox.port.out.EventPublisher;
 import com.markin.togglefox.port.out.FeatureFlagRepository;
+import com.markin.togglefox.port.out.FlagChangeNotifier;
+import com.markin.togglefox.service.CacheWarmupService;
 import com.markin.togglefox.service.CreateFlagService;
+import com.markin.togglefox.service.FlagChangeSyncService;
 import com.markin.togglefox.service.FlagEvaluationService;
+import com.markin.togglefox.service.FlagLoader;
 import com.markin.togglefox.service.ManageFlagService;
+import com.markin.togglefox.service.NegativeFlagCache;
+import com.markin.togglefox.snapshot.FlagSnapshotRegistry;
+import io.lettuce.core.RedisClient;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class BeanConfiguration {
 
+    /**
+     * Bounded in-process flag cache (L1)
+     */
+    @Bean
+    public LocalCacheRepository localFlagCache(
+            @Value("${togglefox.cache.local.max-size:10000}") int maxSize,
+            @Value("${togglefox.cache.local.ttl:5m}") Duration ttl) {
+        return new LocalCacheRepository(maxSize, ttl);
+    }
+
+    /**
+     * Redis cache behind a circuit breaker, so a slow or unreachable Redis is bypassed quickly
+     */
+    @Bean
+    public CircuitBreakingCacheRepository redisCircuitBreaker(
+            CacheRepositoryImpl redisCache,
+            @Qualifier("redisCallExecutor") ExecutorService redisCallExecutor,
+            @Value("${togglefox.cache.redis.latency-budget:20ms}") Duration latencyBudget,
+            @Value("${togglefox.cache.redis.breaker.failure-threshold:5}") int failureThreshold,
+            @Value("${togglefox.cache.redis.breaker.open-duration:10s}") Duration openDuration) {
+        return new CircuitBreakingCacheRepository(redisCache, redisCallExecutor, latencyBudget,
+                failureThreshold, openDuration);
+    }
+
+    /**
+     * Flag cache: bounded in-process L1 in front of the Redis L2
+     */
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "togglefox.cache.redis.mode", havingValue = "standard", matchIfMissing = true)
+    public CacheRepository cacheRepository(
+            LocalCacheRepository localFlagCache,
+            CircuitBreakingCacheRepository redisCircuitBreaker,
+            @Value("${togglefox.cache.local.ttl:5m}") Duration ttl) {
+        return new TieredCacheRepository(localFlagCache, redisCircuitBreaker, ttl);
+    }
+
+    /**
+     * Flag cache in tracking mode: a near-cache kept coherent by Redis invalidation pushes instead of TTLs
+     */
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    @Primary
+    @ConditionalOnProperty(name = "togglefox.cache.redis.mode", havingValue = "tracking")
+    public TrackingCacheRepository trackingCacheRepository(
+            CircuitBreakingCacheRepository redisCircuitBreaker,
+            LettuceConnectionFactory connectionFactory,
+            @Value("${togglefox.cache.local.max-size:10000}") int maxSize) {
+        if (!(connectionFactory.getRequiredNativeClient() instanceof RedisClient redisClient)) {
+            throw new IllegalStateException("Redis tracking mode needs a standalone Redis connection");
+        }
+        return new TrackingCacheRepository(redisCircuitBreaker, redisClient, maxSize);
+    }
+
+    /**
+     * Threads that run Redis cache calls, so callers can stop waiting once the latency budget is spent
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService redisCallExecutor(
+            @Value("${togglefox.cache.redis.call-threads:8}") int threads) {
+        // Bounded queue: when Redis hangs, excess calls are rejected and count as failures
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 64), runnable -> {
+                    Thread thread = new Thread(runnable, "redis-call");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Single background thread that purges retired Redis cache generations
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService cachePurgeExecutor() {
+        return Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-purge");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Short-lived record of flag names that were looked up and do not exist
+     */
+    @Bean
+    public NegativeFlagCache negativeFlagCache(
+            @Value("${togglefox.cache.negative.max-size:10000}") int maxSize,
+            @Value("${togglefox.cache.negative.ttl:30s}") Duration ttl) {
+        return new NegativeFlagCache(maxSize, ttl);
+    }
+
+    /**
+     * Applies flag changes broadcast by other nodes to this node's L1 and snapshots
+     */
+    @Bean
+    public SyncFlagChangeUseCase syncFlagChangeUseCase(
+            FeatureFlagRepository repository,
+            LocalCacheRepository localFlagCache,
+            NegativeFlagCache negativeFlagCache,
+            FlagSnapshotRegistry snapshots) {
+        return new FlagChangeSyncService(repository, localFlagCache, negativeFlagCache, snapshots);
+    }
+
+    /**
+     * Cross-node flag change notifications over Redis pub/sub
+     */
+    @Bean
+    public RedisFlagChangeNotifier flagChangeNotifier(
+            StringRedisTemplate stringRedisTemplate,
+            @Value("${togglefox.cache.invalidation.channel:togglefox:flag-changes}") String channel,
+            SyncFlagChangeUseCase syncFlagChangeUseCase) {
+        return new RedisFlagChangeNotifier(stringRedisTemplate, channel, syncFlagChangeUseCase);
+    }
+
+    /**
+     * In-memory per-environment flag snapshots used by evaluation
+     */
+    @Bean
+    public FlagSnapshotRegistry flagSnapshotRegistry(
+            FeatureFlagRepository repository,
+            EnvironmentCacheRepository environmentCache,
+            @Value("${togglefox.snapshot.max-environments:256}") int maxEnvironments,
+            @Value("${togglefox.snapshot.idle-timeout:30m}") Duration idleTimeout,
+            @Value("${togglefox.snapshot.failure-backoff:1s}") Duration failureBackoff,
+            @Value("${togglefox.snapshot.max-failure-backoff:30s}") Duration maxFailureBackoff) {
+        return new FlagSnapshotRegistry(repository, environmentCache, maxEnvironments, idleTimeout,
+                failureBackoff, maxFailureBackoff);
+    }
+
+    /**
+     * Dedicated fork-join pool for batch evaluation, kept separate from the common pool
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool batchEvaluationPool(
+            @Value("${togglefox.batch.parallelism:0}") int parallelism) {
+        return new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Background threads that refresh stale cache entries
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService cacheRefreshExecutor(
+            @Value("${togglefox.cache.refresh-threads:2}") int threads) {
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "cache-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Cache-aside flag lookup with request coalescing, stale-while-revalidate and refresh-ahead of hot flags
+     */
+    @Bean
+    public FlagLoader flagLoader(
+            FeatureFlagRepository repository,
+            CacheRepository cache,
+            NegativeFlagCache negativeFlagCache,
+            @Qualifier("cacheRefreshExecutor") ExecutorService cacheRefreshExecutor,
+            @Value("${togglefox.cache.fresh-for:5m}") Duration freshFor,
+            @Value("${togglefox.cache.stale-for:1m}") Duration staleFor,
+            @Value("${togglefox.cache.refresh-ahead.window:30s}") Duration refreshAhead,
+            @Value("${togglefox.cache.refresh-ahead.hot-threshold:10}") int hotThreshold) {
+        return new FlagLoader(repository, cache, negativeFlagCache, cacheRefreshExecutor, freshFor, staleFor,
+                refreshAhead, hotThreshold);
+    }
+
+    /**
+     * Startup warm-up of snapshots and cache
+     */
+    @Bean
+    public WarmUpCacheUseCase warmUpCacheUseCase(
+            FeatureFlagRepository repository,
+            FlagSnapshotRegistry snapshots,
+            FlagLoader flagLoader) {
+        return new CacheWarmupService(repository, snapshots, flagLoader);
+    }
+
     /**
      * Flag evaluation use case
      */
     @Bean
     public FlagEvaluationUseCase flagEvaluationUseCase(
-            FeatureFlagRepository repository,
-            CacheRepository cache) {
-        return new FlagEvaluationService(repository, cache);
+            FlagSnapshotRegistry snapshots,
+            FlagLoader flagLoader,
+            ForkJoinPool batchEvaluationPool,
+            @Value("${togglefox.evaluation.include-reasons:true}") boolean includeReasons) {
+        return new FlagEvaluationService(snapshots, flagLoader, batchEvaluationPool, includeReasons);
     }
 
     /**
@@ -32,8 +242,11 @@ public class BeanConfiguration {
     @Bean
     public CreateFlagUseCase createFlagUseCase(
             FeatureFlagRepository repository,
-            EventPublisher eventPublisher) {
-        return new CreateFlagService(repository, eventPublisher);
+            EventPublisher eventPublisher,
+            FlagSnapshotRegistry snapshots,
+            NegativeFlagCache negativeFlagCache,
+            FlagChangeNotifier flagChangeNotifier) {
+        return new CreateFlagService(repository, eventPublisher, snapshots, negativeFlagCache, flagChangeNotifier);
     }
 
     /**
@@ -43,8 +256,13 @@ public class BeanConfiguration {
     public ManageFlagUseCase manageFlagUseCase(
             FeatureFlagRepository repository,
             CacheRepository cache,
-            EventPublisher eventPublisher) {
-        return new ManageFlagService(repository, cache, eventPublisher);
+            EventPublisher eventPublisher,
+            FlagSnapshotRegistry snapshots,
+            FlagChangeNotifier flagChangeNotifier,
+            FlagLoader flagLoader,
+            @Value("${togglefox.cache.write-through:true}") boolean writeThrough) {
+        return new ManageFlagService(repository, cache, eventPublisher, snapshots, flagChangeNotifier,
+                flagLoader, writeThrough);
     }
 
     /**
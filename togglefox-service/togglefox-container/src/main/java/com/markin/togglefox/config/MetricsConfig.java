@@ -0,0 +1,77 @@
+package com.markin.togglefox.config;
+
+import com.markin.togglefox.dataaccess.cache.CircuitBreakingCacheRepository;
+import com.markin.togglefox.dataaccess.cache.LocalCacheRepository;
+import com.markin.togglefox.dataaccess.repository.CacheRepositoryImpl;
+import com.markin.togglefox.port.out.CacheRepository;
+import com.markin.togglefox.port.out.CacheStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Flag cache counters, read from each tier's stats when metrics are scraped
+     */
+    @Bean
+    public MeterBinder flagCacheMetrics(CacheRepository cacheRepository,
+                                        LocalCacheRepository localFlagCache,
+                                        CacheRepositoryImpl redisCache,
+                                        CircuitBreakingCacheRepository redisCircuitBreaker) {
+        return registry -> {
+            bind(registry, "flags", cacheRepository, true);
+            bind(registry, "flags-local", localFlagCache, true);
+            // Redis keeps its own key counts, so no size gauge for that tier
+            bind(registry, "flags-redis", redisCache, false);
+            Gauge.builder("cache.circuit.open", redisCircuitBreaker, breaker -> breaker.isOpen() ? 1 : 0)
+                    .tag("cache", "flags-redis")
+                    .description("1 while Redis is being bypassed after repeated failures")
+                    .register(registry);
+        };
+    }
+
+    private static void bind(MeterRegistry registry, String cacheName, CacheRepository cache, boolean withSize) {
+        Tags tags = Tags.of("cache", cacheName);
+
+        FunctionCounter.builder("cache.gets", cache, c -> c.stats().hitCount())
+                .tags(tags).tag("result", "hit")
+                .description("Cache lookups that found a flag")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", cache, c -> c.stats().missCount())
+                .tags(tags).tag("result", "miss")
+                .description("Cache lookups that found nothing")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", cache, c -> c.stats().evictionCount())
+                .tags(tags)
+                .description("Entries dropped for expiry or size")
+                .register(registry);
+        FunctionCounter.builder("cache.loads", cache, c -> c.stats().loadCount())
+                .tags(tags)
+                .description("Lookups that went to the next tier")
+                .register(registry);
+        FunctionCounter.builder("cache.load.duration", cache,
+                        c -> c.stats().totalLoadTimeNanos() / (double) TimeUnit.SECONDS.toNanos(1))
+                .tags(tags)
+                .baseUnit("seconds")
+                .description("Total time spent in lookups that went to the next tier")
+                .register(registry);
+        if (withSize) {
+            Gauge.builder("cache.size", cache, c -> c.stats().totalCachedItems())
+                    .tags(tags)
+                    .description("Entries currently cached")
+                    .register(registry);
+        }
+        Gauge.builder("cache.hit.ratio", cache, c -> c.stats().hitRatio())
+                .tags(tags)
+                .description("Share of lookups that were hits")
+                .register(registry);
+    }
+}
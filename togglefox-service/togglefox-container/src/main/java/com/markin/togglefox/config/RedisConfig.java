@@ -1,24 +1,37 @@
 package com.markin.togglefox.config;
 
+import com.markin.togglefox.dataaccess.cache.FeatureFlagRedisSerializer;
+import com.markin.togglefox.dataaccess.messaging.RedisFlagChangeNotifier;
+import com.markin.togglefox.domain.model.EvaluableFlag;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 @Configuration
 public class RedisConfig {
 
     @Bean
-    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
-        RedisTemplate<String, Object> template = new RedisTemplate<>();
+    public RedisTemplate<String, EvaluableFlag> featureFlagRedisTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, EvaluableFlag> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
 
 
         template.setKeySerializer(new StringRedisSerializer());
-        template.setValueSerializer(new GenericJackson2JsonRedisSerializer());
+        template.setValueSerializer(new FeatureFlagRedisSerializer());
 
         return template;
     }
-}
\ No newline at end of file
+
+    @Bean
+    public RedisMessageListenerContainer flagChangeListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                     RedisFlagChangeNotifier flagChangeNotifier) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(flagChangeNotifier, new ChannelTopic(flagChangeNotifier.getChannel()));
+        return container;
+    }
+}
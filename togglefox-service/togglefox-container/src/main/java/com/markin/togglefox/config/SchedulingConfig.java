@@ -0,0 +1,47 @@
+package com.markin.togglefox.config;
+
+import com.markin.togglefox.service.FlagLoader;
+import com.markin.togglefox.snapshot.FlagSnapshotRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(SchedulingConfig.class);
+
+    private final FlagSnapshotRegistry snapshots;
+    private final FlagLoader flagLoader;
+
+    public SchedulingConfig(FlagSnapshotRegistry snapshots, FlagLoader flagLoader) {
+        this.snapshots = snapshots;
+        this.flagLoader = flagLoader;
+    }
+
+    /**
+     * Periodically reload loaded snapshots so changes made on other nodes are picked up
+     */
+    @Scheduled(fixedDelayString = "${togglefox.snapshot.refresh-interval:10s}",
+            initialDelayString = "${togglefox.snapshot.refresh-interval:10s}")
+    public void refreshSnapshots() {
+        try {
+            snapshots.refreshAll();
+        } catch (RuntimeException e) {
+            // Keep serving the previous snapshots until the next successful refresh
+            log.warn("Failed to refresh flag snapshots: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reload hot cached flags shortly before they go stale, so request threads never wait on the reload
+     */
+    @Scheduled(fixedDelayString = "${togglefox.cache.refresh-ahead.interval:5s}",
+            initialDelayString = "${togglefox.cache.refresh-ahead.interval:5s}")
+    public void refreshHotFlags() {
+        flagLoader.refreshHotEntries();
+    }
+}
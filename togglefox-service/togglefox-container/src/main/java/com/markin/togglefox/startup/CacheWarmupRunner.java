@@ -0,0 +1,93 @@
+package com.markin.togglefox.startup;
+
+import com.markin.togglefox.port.in.WarmUpCacheUseCase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Warms the flag snapshots and cache in the background after startup.
+ *
+ * Exposed as the {@code cacheWarmup} health indicator, which is part of the readiness group:
+ * the node only reports ready once the warm-up has finished. If the database stays unavailable
+ * for every attempt the node goes ready anyway and loads flags on demand.
+ */
+@Component("cacheWarmup")
+public class CacheWarmupRunner implements ApplicationRunner, HealthIndicator {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheWarmupRunner.class);
+
+    private enum State { PENDING, WARMED, FAILED }
+
+    private final WarmUpCacheUseCase warmUpCacheUseCase;
+    private final int maxAttempts;
+    private final Duration retryDelay;
+
+    private volatile State state = State.PENDING;
+    private volatile int flagsLoaded;
+    private volatile long durationMillis;
+
+    public CacheWarmupRunner(WarmUpCacheUseCase warmUpCacheUseCase,
+                             @Value("${togglefox.warmup.max-attempts:5}") int maxAttempts,
+                             @Value("${togglefox.warmup.retry-delay:5s}") Duration retryDelay) {
+        this.warmUpCacheUseCase = warmUpCacheUseCase;
+        this.maxAttempts = maxAttempts;
+        this.retryDelay = retryDelay;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Thread thread = new Thread(this::warmUp, "cache-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public Health health() {
+        return switch (state) {
+            case PENDING -> Health.outOfService().withDetail("warmup", "in progress").build();
+            case WARMED -> Health.up()
+                    .withDetail("flags", flagsLoaded)
+                    .withDetail("durationMs", durationMillis)
+                    .build();
+            case FAILED -> Health.up().withDetail("warmup", "failed, loading flags on demand").build();
+        };
+    }
+
+    private void warmUp() {
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            long start = System.nanoTime();
+            try {
+                flagsLoaded = warmUpCacheUseCase.warmUp();
+                durationMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+                state = State.WARMED;
+                log.info("Warmed {} flags in {} ms", flagsLoaded, durationMillis);
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Cache warm-up attempt {}/{} failed: {}", attempt, maxAttempts, e.getMessage());
+            }
+
+            if (attempt < maxAttempts && !sleep(retryDelay)) {
+                break;
+            }
+        }
+        state = State.FAILED;
+    }
+
+    private boolean sleep(Duration delay) {
+        try {
+            Thread.sleep(delay.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
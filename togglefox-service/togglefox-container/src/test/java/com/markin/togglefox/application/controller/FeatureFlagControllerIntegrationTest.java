@@ -15,6 +15,7 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.testcontainers.containers.GenericContainer;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
@@ -25,10 +26,14 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.containsString;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -272,8 +277,107 @@ public class FeatureFlagControllerIntegrationTest {
                             .param("userId", "user123"))
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.enabled").value(false))
+                    .andExpect(jsonPath("$.reasonCode").value("FLAG_NOT_FOUND"))
                     .andExpect(jsonPath("$.reason").value(containsString("not found")));
         }
+
+        @Test
+        @DisplayName("Should evaluate all enabled flags for a user")
+        void shouldEvaluateAllEnabledFlagsForUser() throws Exception {
+            // Given - One enabled attribute flag and one disabled flag
+            String enabledFlagId = createFlagWithAttributeStrategy("bulk-enabled-flag");
+            mockMvc.perform(put("/api/v1/flags/{flagId}/enable", enabledFlagId));
+            createTestFlag("bulk-disabled-flag");
+
+            Map<String, Object> attributes = new HashMap<>();
+            attributes.put("country", "US");
+            attributes.put("plan", "premium");
+
+            EvaluationRequestDto request = new EvaluationRequestDto("user123", attributes);
+
+            // When & Then
+            mockMvc.perform(post("/api/v1/evaluate")
+                            .param("environment", "development")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.environment").value("development"))
+                    .andExpect(jsonPath("$.flags['bulk-enabled-flag']").value(true))
+                    .andExpect(jsonPath("$.flags['bulk-disabled-flag']").doesNotExist());
+        }
+
+        @Test
+        @DisplayName("Should stream batch evaluation results as NDJSON")
+        void shouldStreamBatchEvaluationResultsAsNdjson() throws Exception {
+            // Given
+            String flagId = createFlagWithAttributeStrategy("batch-attr-flag");
+            mockMvc.perform(put("/api/v1/flags/{flagId}/enable", flagId));
+            // Load the environment snapshot on the test thread, which sees the uncommitted test data
+            mockMvc.perform(get("/api/v1/evaluate/batch-attr-flag").param("environment", "development"));
+
+            String requests =
+                    "{\"userId\": \"user1\", \"attributes\": {\"country\": \"US\", \"plan\": \"premium\"}}\n" +
+                    "{\"userId\": \"user2\", \"attributes\": {\"country\": \"DE\", \"plan\": \"premium\"}}\n";
+
+            // When
+            MvcResult result = mockMvc.perform(post("/api/v1/evaluate/batch")
+                            .param("environment", "development")
+                            .param("flags", "batch-attr-flag", "missing-flag")
+                            .contentType(MediaType.APPLICATION_NDJSON)
+                            .content(requests))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            // Then
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string(containsString(
+                            "{\"userId\":\"user1\",\"flags\":{\"batch-attr-flag\":true,\"missing-flag\":false}}")))
+                    .andExpect(content().string(containsString(
+                            "{\"userId\":\"user2\",\"flags\":{\"batch-attr-flag\":false,\"missing-flag\":false}}")));
+        }
+
+        @Test
+        @DisplayName("Should answer invalid batch lines in place and keep evaluating")
+        void shouldReportInvalidBatchLinesInPlace() throws Exception {
+            // Given
+            String requests =
+                    "{\"userId\": \"user1\"}\n" +
+                    "{\"userId\": \"  \"}\n" +
+                    "{not json\n" +
+                    "{\"userId\": \"user2\"}\n";
+
+            // When
+            MvcResult result = mockMvc.perform(post("/api/v1/evaluate/batch")
+                            .param("environment", "development")
+                            .param("flags", "missing-flag")
+                            .contentType(MediaType.APPLICATION_NDJSON)
+                            .content(requests))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            // Then
+            String body = mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            List<String> lines = body.lines().toList();
+            assertThat(lines).hasSize(4);
+            assertThat(lines.get(0)).isEqualTo("{\"userId\":\"user1\",\"flags\":{\"missing-flag\":false}}");
+            assertThat(lines.get(1)).isEqualTo("{\"line\":2,\"error\":\"User ID cannot be blank\"}");
+            assertThat(lines.get(2)).startsWith("{\"line\":3,\"error\":\"Malformed evaluation request");
+            assertThat(lines.get(3)).isEqualTo("{\"userId\":\"user2\",\"flags\":{\"missing-flag\":false}}");
+        }
+
+        @Test
+        @DisplayName("Should reject a batch for an invalid environment before streaming")
+        void shouldRejectBatchForInvalidEnvironment() throws Exception {
+            mockMvc.perform(post("/api/v1/evaluate/batch")
+                            .param("environment", "not valid!")
+                            .param("flags", "missing-flag")
+                            .contentType(MediaType.APPLICATION_NDJSON)
+                            .content("{\"userId\": \"user1\"}\n"))
+                    .andExpect(status().isBadRequest());
+        }
     }
 
     private String createTestFlag(String flagName) throws Exception {
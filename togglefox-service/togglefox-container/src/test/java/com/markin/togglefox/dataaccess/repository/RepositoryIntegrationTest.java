@@ -117,4 +117,31 @@ public class RepositoryIntegrationTest {
         assertThat(repository.existsByNameAndEnvironment("non-existent", environment)).isFalse();
         assertThat(repository.existsByNameAndEnvironment("exists-test-flag", Environment.development())).isFalse();
     }
+
+    @Test
+    @DisplayName("Should raise the version on every update of a saved flag")
+    void shouldRaiseVersionOnEveryUpdate() {
+        // Given
+        FeatureFlagId id = FeatureFlagId.generate();
+        FeatureFlag flag = FeatureFlag.create(
+                id,
+                "versioned-repository-flag",
+                "Versioned flag",
+                Environment.development(),
+                new PercentageRolloutStrategy(id, 10)
+        );
+        FeatureFlag created = repository.save(flag);
+
+        // When
+        FeatureFlag loaded = repository.findById(id).orElseThrow();
+        loaded.enable();
+        FeatureFlag firstUpdate = repository.save(loaded);
+        firstUpdate.updateStrategy(new PercentageRolloutStrategy(id, 60));
+        FeatureFlag secondUpdate = repository.save(firstUpdate);
+
+        // Then
+        assertThat(firstUpdate.getVersion()).isGreaterThan(created.getVersion());
+        assertThat(secondUpdate.getVersion()).isGreaterThan(firstUpdate.getVersion());
+        assertThat(repository.findById(id).orElseThrow().getVersion()).isEqualTo(secondUpdate.getVersion());
+    }
 }
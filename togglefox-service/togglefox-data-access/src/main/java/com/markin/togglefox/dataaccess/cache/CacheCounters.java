@@ -0,0 +1,70 @@
+package com.markin.togglefox.dataaccess.cache;
+
+import com.markin.togglefox.port.out.CacheStats;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hit, miss, eviction and load counters for a cache adapter.
+ *
+ * Backed by {@link LongAdder}s, so recording is a striped add that does not contend
+ * between request threads or allocate; the counters are only summed when a
+ * {@link CacheStats} snapshot is taken.
+ */
+public class CacheCounters {
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadTimeNanos = new LongAdder();
+
+    public void recordHit() {
+        hits.increment();
+    }
+
+    public void recordMiss() {
+        misses.increment();
+    }
+
+    public void recordHits(int count) {
+        hits.add(count);
+    }
+
+    public void recordMisses(int count) {
+        misses.add(count);
+    }
+
+    public void recordEviction() {
+        evictions.increment();
+    }
+
+    public void recordLoad(long elapsedNanos) {
+        loads.increment();
+        loadTimeNanos.add(elapsedNanos);
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    public long loadCount() {
+        return loads.sum();
+    }
+
+    public long totalLoadTimeNanos() {
+        return loadTimeNanos.sum();
+    }
+
+    public CacheStats snapshot(long cachedItems) {
+        return CacheStats.of(hitCount(), missCount(), evictionCount(), cachedItems, loadCount(), totalLoadTimeNanos());
+    }
+}
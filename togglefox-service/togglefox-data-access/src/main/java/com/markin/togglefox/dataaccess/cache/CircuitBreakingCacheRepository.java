@@ -0,0 +1,281 @@
+package com.markin.togglefox.dataaccess.cache;
+
+import com.markin.togglefox.domain.model.Environment;
+import com.markin.togglefox.domain.model.EvaluableFlag;
+import com.markin.togglefox.domain.model.FeatureFlagId;
+import com.markin.togglefox.port.out.CacheRepository;
+import com.markin.togglefox.port.out.CacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker around a remote cache tier.
+ *
+ * Every call gets a small latency budget; a call that fails or runs over it counts as a
+ * failure. After {@code failureThreshold} failures in a row the breaker opens and calls
+ * skip the remote tier entirely: reads are misses and writes are dropped. Once
+ * {@code openFor} has passed, a single call is let through as a probe. If it succeeds
+ * the breaker closes, otherwise it stays open for another period.
+ *
+ * Writes that failed, timed out or were skipped are replayed as evictions after the next
+ * successful call, so the remote tier does not keep serving flags that changed meanwhile.
+ * That covers a single failed write while the breaker stays closed as well as a whole outage.
+ */
+public class CircuitBreakingCacheRepository implements CacheRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreakingCacheRepository.class);
+
+    // Beyond this many dropped writes, recovery clears the remote tier instead of evicting one by one
+    private static final int MAX_PENDING_EVICTIONS = 1000;
+
+    // Bulk calls get one extra latency budget per this many flags
+    private static final int BULK_FLAGS_PER_BUDGET = 100;
+
+    private enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final CacheRepository delegate;
+    private final ExecutorService callExecutor;
+    private final long latencyBudgetNanos;
+    private final int failureThreshold;
+    private final long openForNanos;
+    private final LongSupplier nanoClock;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long openedAtNanos;
+
+    private final Set<FeatureFlagId> pendingEvictions = ConcurrentHashMap.newKeySet();
+    private volatile boolean clearPending;
+    private final AtomicBoolean replaying = new AtomicBoolean();
+
+    public CircuitBreakingCacheRepository(CacheRepository delegate, ExecutorService callExecutor,
+                                          Duration latencyBudget, int failureThreshold, Duration openFor) {
+        this(delegate, callExecutor, latencyBudget, failureThreshold, openFor, System::nanoTime);
+    }
+
+    CircuitBreakingCacheRepository(CacheRepository delegate, ExecutorService callExecutor,
+                                   Duration latencyBudget, int failureThreshold, Duration openFor,
+                                   LongSupplier nanoClock) {
+        if (failureThreshold <= 0) {
+            throw new IllegalArgumentException("Failure threshold must be positive");
+        }
+        this.delegate = Objects.requireNonNull(delegate, "Delegate cache cannot be null");
+        this.callExecutor = Objects.requireNonNull(callExecutor, "Call executor cannot be null");
+        this.latencyBudgetNanos = latencyBudget.toNanos();
+        this.failureThreshold = failureThreshold;
+        this.openForNanos = openFor.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public void put(FeatureFlagId id, EvaluableFlag featureFlag, Duration ttl) {
+        call("put", () -> {
+            delegate.put(id, featureFlag, ttl);
+            return null;
+        }, null, () -> dropped(id));
+    }
+
+    @Override
+    public Optional<EvaluableFlag> get(FeatureFlagId id) {
+        return call("get", () -> delegate.get(id), Optional.empty(), () -> { });
+    }
+
+    @Override
+    public Optional<EvaluableFlag> get(String flagName, Environment environment) {
+        return call("get", () -> delegate.get(flagName, environment), Optional.empty(), () -> { });
+    }
+
+    @Override
+    public Map<String, EvaluableFlag> getAll(Collection<String> flagNames, Environment environment) {
+        return call("getAll", () -> delegate.getAll(flagNames, environment), bulkBudget(flagNames.size()),
+                Map.of(), () -> { });
+    }
+
+    @Override
+    public void putAll(Collection<EvaluableFlag> featureFlags, Duration ttl) {
+        call("putAll", () -> {
+            delegate.putAll(featureFlags, ttl);
+            return null;
+        }, bulkBudget(featureFlags.size()), null, () -> featureFlags.forEach(flag -> dropped(flag.getId())));
+    }
+
+    @Override
+    public void evict(FeatureFlagId id) {
+        call("evict", () -> {
+            delegate.evict(id);
+            return null;
+        }, null, () -> dropped(id));
+    }
+
+    @Override
+    public void clear() {
+        call("clear", () -> {
+            delegate.clear();
+            return null;
+        }, null, () -> clearPending = true);
+    }
+
+    @Override
+    public CacheStats stats() {
+        return delegate.stats();
+    }
+
+    public boolean isOpen() {
+        return state.get() != State.CLOSED;
+    }
+
+    private <T> T call(String operation, Callable<T> call, T fallback, Runnable onSkipped) {
+        return call(operation, call, latencyBudgetNanos, fallback, onSkipped);
+    }
+
+    private <T> T call(String operation, Callable<T> call, long budgetNanos, T fallback, Runnable onSkipped) {
+        if (!allowCall()) {
+            onSkipped.run();
+            return fallback;
+        }
+
+        Future<T> future;
+        try {
+            future = callExecutor.submit(call);
+        } catch (RejectedExecutionException e) {
+            // Every call thread is stuck on the remote tier
+            onFailure(operation, "no call thread available");
+            onSkipped.run();
+            return fallback;
+        }
+
+        try {
+            T result = future.get(budgetNanos, TimeUnit.NANOSECONDS);
+            onSuccess();
+            return result;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            onFailure(operation, "exceeded latency budget");
+        } catch (ExecutionException e) {
+            onFailure(operation, String.valueOf(e.getCause()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            onFailure(operation, "interrupted");
+        }
+        onSkipped.run();
+        return fallback;
+    }
+
+    private long bulkBudget(int flagCount) {
+        return latencyBudgetNanos * (1 + flagCount / BULK_FLAGS_PER_BUDGET);
+    }
+
+    /**
+     * Closed: always. Open: only the first caller after the open period, which becomes the probe.
+     */
+    private boolean allowCall() {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return true;
+        }
+        return current == State.OPEN
+                && nanoClock.getAsLong() - openedAtNanos >= openForNanos
+                && state.compareAndSet(State.OPEN, State.HALF_OPEN);
+    }
+
+    private void onSuccess() {
+        consecutiveFailures.set(0);
+        if (state.compareAndSet(State.HALF_OPEN, State.CLOSED)) {
+            logger.info("Remote cache recovered, closing circuit");
+        }
+        if (state.get() == State.CLOSED) {
+            replayDroppedWrites();
+        }
+    }
+
+    private void onFailure(String operation, String reason) {
+        logger.debug("Remote cache {} failed: {}", operation, reason);
+        if (state.get() == State.HALF_OPEN) {
+            openedAtNanos = nanoClock.getAsLong();
+            state.compareAndSet(State.HALF_OPEN, State.OPEN);
+            return;
+        }
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            openedAtNanos = nanoClock.getAsLong();
+            if (state.compareAndSet(State.CLOSED, State.OPEN)) {
+                logger.warn("Remote cache failed {} times in a row ({}), bypassing it for {} ms",
+                        failureThreshold, reason, TimeUnit.NANOSECONDS.toMillis(openForNanos));
+            }
+        }
+    }
+
+    private void dropped(FeatureFlagId id) {
+        if (clearPending) {
+            return;
+        }
+        if (pendingEvictions.size() >= MAX_PENDING_EVICTIONS) {
+            clearPending = true;
+            pendingEvictions.clear();
+            return;
+        }
+        pendingEvictions.add(id);
+    }
+
+    private void replayDroppedWrites() {
+        if (!clearPending && pendingEvictions.isEmpty()) {
+            return;
+        }
+        // One replay at a time; writes dropped meanwhile are picked up after a later success
+        if (!replaying.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            callExecutor.execute(() -> {
+                try {
+                    if (clearPending) {
+                        clearPending = false;
+                        pendingEvictions.clear();
+                        delegate.clear();
+                        return;
+                    }
+                    List<FeatureFlagId> ids = new ArrayList<>(pendingEvictions);
+                    for (FeatureFlagId id : ids) {
+                        pendingEvictions.remove(id);
+                        try {
+                            delegate.evict(id);
+                        } catch (RuntimeException e) {
+                            // Keep it for the next replay
+                            dropped(id);
+                            throw e;
+                        }
+                    }
+                    logger.debug("Evicted {} flags whose remote cache writes were dropped", ids.size());
+                } catch (RuntimeException e) {
+                    logger.warn("Failed to replay dropped remote cache writes: {}", e.getMessage());
+                } finally {
+                    replaying.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            replaying.set(false);
+            logger.warn("Could not schedule replay of dropped remote cache writes");
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package com.markin.togglefox.dataaccess.cache;
+
+import com.markin.togglefox.domain.model.Environment;
+import com.markin.togglefox.domain.model.EvaluableFlag;
+import com.markin.togglefox.domain.model.FeatureFlagId;
+import com.markin.togglefox.domain.strategy.AttributeBasedStrategy;
+import com.markin.togglefox.domain.strategy.PercentageRolloutStrategy;
+import com.markin.togglefox.domain.strategy.RolloutStrategy;
+import com.markin.togglefox.domain.strategy.UserTargetingStrategy;
+import com.markin.togglefox.domain.util.BucketingAlgorithm;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compact, versioned binary format for cached feature flags.
+ *
+ * Only the evaluation view of a flag is cached, so this encodes {@link EvaluableFlag}s.
+ * Layout: a magic byte and a format version, then the flag fields and a tagged strategy.
+ * Integers are varints and strings are length-prefixed UTF-8, so a flag with a large
+ * user list costs little more than the user ids themselves. Strategies do not repeat
+ * the flag id; it is restored from the flag on decode.
+ */
+public final class FeatureFlagCodec {
+
+    private static final byte MAGIC = 'F';
+    // Version 2 added the flag's persisted version; version 1 payloads decode with version 0.
+    // Version 3 dropped the description and timestamps, which evaluation never reads.
+    private static final byte FORMAT_VERSION = 3;
+    private static final byte FORMAT_VERSION_WITHOUT_FLAG_VERSION = 1;
+
+    private static final byte PERCENTAGE = 1;
+    private static final byte USER_TARGETING = 2;
+    private static final byte ATTRIBUTE_BASED = 3;
+
+    private static final byte STRING_VALUE = 1;
+    private static final byte INTEGER_VALUE = 2;
+    private static final byte LONG_VALUE = 3;
+    private static final byte DOUBLE_VALUE = 4;
+    private static final byte BOOLEAN_VALUE = 5;
+
+    private FeatureFlagCodec() {
+    }
+
+    public static byte[] encode(EvaluableFlag flag) {
+        Writer out = new Writer(128);
+        out.writeByte(MAGIC);
+        out.writeByte(FORMAT_VERSION);
+        out.writeString(flag.getId().getValue());
+        out.writeString(flag.getName());
+        out.writeByte(flag.isEnabled() ? 1 : 0);
+        out.writeString(flag.getEnvironment().getName());
+        out.writeVarLong(flag.getVersion());
+        writeStrategy(out, flag.getStrategy());
+        return out.toByteArray();
+    }
+
+    public static EvaluableFlag decode(byte[] bytes) {
+        Reader in = new Reader(bytes);
+        if (in.readByte() != MAGIC) {
+            throw new IllegalArgumentException("Not an encoded feature flag");
+        }
+        byte version = in.readByte();
+        if (version < FORMAT_VERSION_WITHOUT_FLAG_VERSION || version > FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported feature flag format version: " + version);
+        }
+
+        FeatureFlagId id = FeatureFlagId.interned(in.readString());
+        String name = in.readString();
+        if (version < FORMAT_VERSION) {
+            in.readNullableString(); // description
+        }
+        boolean enabled = in.readByte() != 0;
+        Environment environment = Environment.interned(in.readString());
+        if (version < FORMAT_VERSION) {
+            in.skipTimestamp(); // created at
+            in.skipTimestamp(); // updated at
+        }
+        long flagVersion = version != FORMAT_VERSION_WITHOUT_FLAG_VERSION ? in.readVarLong() : 0L;
+        RolloutStrategy strategy = readStrategy(in, id);
+
+        return EvaluableFlag.of(id, name, environment, enabled, strategy, flagVersion);
+    }
+
+    private static void writeStrategy(Writer out, RolloutStrategy strategy) {
+        if (strategy instanceof PercentageRolloutStrategy percentage) {
+            out.writeByte(PERCENTAGE);
+            out.writeVarInt(percentage.getPercentage());
+            out.writeString(percentage.getBucketingAlgorithm().name());
+        } else if (strategy instanceof UserTargetingStrategy userTargeting) {
+            Set<String> users = userTargeting.getTargetedUsers();
+            out.writeByte(USER_TARGETING);
+            out.writeVarInt(users.size());
+            for (String user : users) {
+                out.writeString(user);
+            }
+        } else if (strategy instanceof AttributeBasedStrategy attributeBased) {
+            Map<String, Set<Object>> rules = attributeBased.getAttributeRules();
+            out.writeByte(ATTRIBUTE_BASED);
+            out.writeVarInt(rules.size());
+            for (Map.Entry<String, Set<Object>> rule : rules.entrySet()) {
+                out.writeString(rule.getKey());
+                out.writeVarInt(rule.getValue().size());
+                for (Object value : rule.getValue()) {
+                    writeValue(out, value);
+                }
+            }
+        } else {
+            throw new IllegalArgumentException("Unsupported strategy type: " + strategy.getStrategyType());
+        }
+    }
+
+    private static RolloutStrategy readStrategy(Reader in, FeatureFlagId flagId) {
+        byte type = in.readByte();
+        switch (type) {
+            case PERCENTAGE: {
+                int percentage = in.readVarInt();
+                BucketingAlgorithm algorithm = BucketingAlgorithm.fromName(in.readString());
+                return new PercentageRolloutStrategy(flagId, percentage, algorithm);
+            }
+            case USER_TARGETING: {
+                int count = in.readVarInt();
+                List<String> users = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    users.add(in.readString());
+                }
+                return new UserTargetingStrategy(flagId, users);
+            }
+            case ATTRIBUTE_BASED: {
+                int ruleCount = in.readVarInt();
+                Map<String, Set<Object>> rules = new HashMap<>(capacityFor(ruleCount));
+                for (int i = 0; i < ruleCount; i++) {
+                    String attribute = in.readString();
+                    int valueCount = in.readVarInt();
+                    Set<Object> values = new HashSet<>(capacityFor(valueCount));
+                    for (int j = 0; j < valueCount; j++) {
+                        values.add(readValue(in));
+                    }
+                    rules.put(attribute, values);
+                }
+                return new AttributeBasedStrategy(flagId, rules);
+            }
+            default:
+                throw new IllegalArgumentException("Unknown strategy tag: " + type);
+        }
+    }
+
+    private static void writeValue(Writer out, Object value) {
+        if (value instanceof String string) {
+            out.writeByte(STRING_VALUE);
+            out.writeString(string);
+        } else if (value instanceof Integer integer) {
+            out.writeByte(INTEGER_VALUE);
+            out.writeVarLong(zigZag(integer));
+        } else if (value instanceof Long longValue) {
+            out.writeByte(LONG_VALUE);
+            out.writeVarLong(zigZag(longValue));
+        } else if (value instanceof Double doubleValue) {
+            out.writeByte(DOUBLE_VALUE);
+            out.writeLong(Double.doubleToLongBits(doubleValue));
+        } else if (value instanceof Boolean bool) {
+            out.writeByte(BOOLEAN_VALUE);
+            out.writeByte(bool ? 1 : 0);
+        } else {
+            throw new IllegalArgumentException("Unsupported attribute value type: "
+                    + (value == null ? "null" : value.getClass().getName()));
+        }
+    }
+
+    private static Object readValue(Reader in) {
+        byte tag = in.readByte();
+        switch (tag) {
+            case STRING_VALUE:
+                return in.readString();
+            case INTEGER_VALUE:
+                return (int) unZigZag(in.readVarLong());
+            case LONG_VALUE:
+                return unZigZag(in.readVarLong());
+            case DOUBLE_VALUE:
+                return Double.longBitsToDouble(in.readLong());
+            case BOOLEAN_VALUE:
+                return in.readByte() != 0;
+            default:
+                throw new IllegalArgumentException("Unknown attribute value tag: " + tag);
+        }
+    }
+
+    private static int capacityFor(int size) {
+        return (int) (size / 0.75f) + 1;
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static final class Writer {
+
+        private byte[] buffer;
+        private int position;
+
+        private Writer(int initialCapacity) {
+            this.buffer = new byte[initialCapacity];
+        }
+
+        void writeByte(int value) {
+            ensureCapacity(1);
+            buffer[position++] = (byte) value;
+        }
+
+        void writeVarInt(int value) {
+            writeVarLong(value & 0xFFFFFFFFL);
+        }
+
+        void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        void writeLong(long value) {
+            ensureCapacity(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[position++] = (byte) (value >>> shift);
+            }
+        }
+
+        void writeString(String value) {
+            int length = value.length();
+            // Flag names, environments and user ids are almost always ASCII: copy chars directly
+            ensureCapacity(length + 5);
+            int start = position;
+            writeVarInt(length);
+            int dataStart = position;
+            for (int i = 0; i < length; i++) {
+                char c = value.charAt(i);
+                if (c >= 0x80) {
+                    position = start;
+                    writeEncodedString(value);
+                    return;
+                }
+                buffer[dataStart + i] = (byte) c;
+            }
+            position = dataStart + length;
+        }
+
+        private void writeEncodedString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length);
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+
+        private void ensureCapacity(int extra) {
+            if (position + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+            }
+        }
+    }
+
+    private static final class Reader {
+
+        private final byte[] buffer;
+        private int position;
+
+        private Reader(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        byte readByte() {
+            if (position >= buffer.length) {
+                throw new IllegalArgumentException("Truncated feature flag payload");
+            }
+            return buffer[position++];
+        }
+
+        int readVarInt() {
+            return (int) readVarLong();
+        }
+
+        long readVarLong() {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = readByte();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint in feature flag payload");
+        }
+
+        long readLong() {
+            long result = 0;
+            for (int i = 0; i < 8; i++) {
+                result = (result << 8) | (readByte() & 0xFF);
+            }
+            return result;
+        }
+
+        void skipTimestamp() {
+            if (readByte() != 0) {
+                readVarLong(); // epoch second
+                readVarInt(); // nanos
+            }
+        }
+
+        String readNullableString() {
+            return readByte() == 0 ? null : readString();
+        }
+
+        String readString() {
+            int length = readVarInt();
+            if (length < 0 || position + length > buffer.length) {
+                throw new IllegalArgumentException("Truncated feature flag payload");
+            }
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.markin.togglefox.dataaccess.cache;
+
+import com.markin.togglefox.domain.model.EvaluableFlag;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+/**
+ * Redis value serializer for feature flags, backed by {@link FeatureFlagCodec}
+ */
+public class FeatureFlagRedisSerializer implements RedisSerializer<EvaluableFlag> {
+
+    @Override
+    public byte[] serialize(EvaluableFlag flag) {
+        if (flag == null) {
+            return null;
+        }
+        try {
+            return FeatureFlagCodec.encode(flag);
+        } catch (IllegalArgumentException e) {
+            throw new SerializationException("Cannot serialize feature flag " + flag.getId(), e);
+        }
+    }
+
+    @Override
+    public EvaluableFlag deserialize(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        try {
+            return FeatureFlagCodec.decode(bytes);
+        } catch (IllegalArgumentException e) {
+            throw new SerializationException("Cannot deserialize feature flag", e);
+        }
+    }
+}
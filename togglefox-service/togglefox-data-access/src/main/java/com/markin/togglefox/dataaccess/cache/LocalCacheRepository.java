@@ -0,0 +1,231 @@
+package com.markin.togglefox.dataaccess.cache;
+
+import com.markin.togglefox.domain.model.Environment;
+import com.markin.togglefox.domain.model.EvaluableFlag;
+import com.markin.togglefox.domain.model.FeatureFlagId;
+import com.markin.togglefox.port.out.CacheRepository;
+import com.markin.togglefox.port.out.CacheStats;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded in-process flag cache, used as the L1 tier in front of Redis.
+ *
+ * Entries expire after a fixed TTL and the least recently used entries are
+ * dropped once the cache grows past its maximum size. A put never replaces a
+ * flag with an older version of itself. Reads are lock-free; only eviction is
+ * serialized. Evictions count entries dropped for expiry or size, not explicit
+ * invalidations.
+ */
+public class LocalCacheRepository implements CacheRepository {
+
+    // Evict down to this fraction of maxSize so eviction is not repeated on every put
+    private static final double EVICTION_TARGET = 0.9;
+
+    private final int maxSize;
+    private final long maxTtlNanos;
+    private final LongSupplier nanoClock;
+
+    private final Map<FeatureFlagId, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<NameKey, FeatureFlagId> idsByName = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final CacheCounters counters = new CacheCounters();
+
+    public LocalCacheRepository(int maxSize, Duration maxTtl) {
+        this(maxSize, maxTtl, System::nanoTime);
+    }
+
+    LocalCacheRepository(int maxSize, Duration maxTtl, LongSupplier nanoClock) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Max size must be positive");
+        }
+        if (maxTtl == null || maxTtl.isNegative() || maxTtl.isZero()) {
+            throw new IllegalArgumentException("Max TTL must be positive");
+        }
+        this.maxSize = maxSize;
+        this.maxTtlNanos = maxTtl.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public void put(FeatureFlagId id, EvaluableFlag featureFlag, Duration ttl) {
+        long now = nanoClock.getAsLong();
+        long ttlNanos = Math.min(ttl.toNanos(), maxTtlNanos);
+        NameKey nameKey = NameKey.of(featureFlag);
+        Entry candidate = new Entry(featureFlag, nameKey, now + ttlNanos, now);
+
+        Entry[] replaced = new Entry[1];
+        Entry stored = entries.compute(id, (key, current) -> {
+            // Never let an older copy of the flag replace a newer one
+            if (current != null && !current.isExpired(now)
+                    && current.flag.getVersion() > featureFlag.getVersion()) {
+                return current;
+            }
+            replaced[0] = current;
+            return candidate;
+        });
+        if (stored != candidate) {
+            return;
+        }
+
+        Entry previous = replaced[0];
+        if (previous != null && !previous.nameKey.equals(nameKey)) {
+            idsByName.remove(previous.nameKey, id);
+        }
+        idsByName.put(nameKey, id);
+
+        if (entries.size() > maxSize) {
+            evictExcess();
+        }
+    }
+
+    @Override
+    public Optional<EvaluableFlag> get(FeatureFlagId id) {
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            counters.recordMiss();
+            return Optional.empty();
+        }
+
+        long now = nanoClock.getAsLong();
+        if (entry.isExpired(now)) {
+            evictEntry(id, entry);
+            counters.recordMiss();
+            return Optional.empty();
+        }
+
+        entry.lastAccessNanos = now;
+        counters.recordHit();
+        return Optional.of(entry.flag);
+    }
+
+    @Override
+    public Optional<EvaluableFlag> get(String flagName, Environment environment) {
+        FeatureFlagId id = idsByName.get(new NameKey(flagName, environment));
+        if (id == null) {
+            counters.recordMiss();
+            return Optional.empty();
+        }
+        return get(id);
+    }
+
+    @Override
+    public Map<String, EvaluableFlag> getAll(Collection<String> flagNames, Environment environment) {
+        Map<String, EvaluableFlag> found = new HashMap<>();
+        for (String flagName : flagNames) {
+            get(flagName, environment).ifPresent(flag -> found.put(flagName, flag));
+        }
+        return found;
+    }
+
+    @Override
+    public void putAll(Collection<EvaluableFlag> featureFlags, Duration ttl) {
+        for (EvaluableFlag flag : featureFlags) {
+            put(flag.getId(), flag, ttl);
+        }
+    }
+
+    @Override
+    public void evict(FeatureFlagId id) {
+        Entry entry = entries.remove(id);
+        if (entry != null) {
+            idsByName.remove(entry.nameKey, id);
+        }
+    }
+
+    @Override
+    public void clear() {
+        entries.clear();
+        idsByName.clear();
+    }
+
+    @Override
+    public CacheStats stats() {
+        return counters.snapshot(entries.size());
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void evictEntry(FeatureFlagId id, Entry entry) {
+        if (entries.remove(id, entry)) {
+            idsByName.remove(entry.nameKey, id);
+            counters.recordEviction();
+        }
+    }
+
+    /**
+     * Drop expired entries, then the least recently used ones, until the cache is back under its target size.
+     * Only one thread evicts at a time; others carry on and leave the cache briefly over its bound.
+     */
+    private void evictExcess() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            long now = nanoClock.getAsLong();
+            entries.forEach((id, entry) -> {
+                if (entry.isExpired(now)) {
+                    evictEntry(id, entry);
+                }
+            });
+
+            int target = (int) (maxSize * EVICTION_TARGET);
+            int excess = entries.size() - target;
+            if (excess <= 0) {
+                return;
+            }
+
+            // Capture access times up front; they keep moving while we sort
+            List<EvictionCandidate> candidates = new ArrayList<>(entries.size());
+            entries.forEach((id, entry) -> candidates.add(new EvictionCandidate(id, entry, entry.lastAccessNanos)));
+            candidates.sort(Comparator.comparingLong(EvictionCandidate::lastAccessNanos));
+            for (int i = 0; i < excess && i < candidates.size(); i++) {
+                EvictionCandidate candidate = candidates.get(i);
+                evictEntry(candidate.id(), candidate.entry());
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private record NameKey(String flagName, Environment environment) {
+
+        static NameKey of(EvaluableFlag flag) {
+            return new NameKey(flag.getName(), flag.getEnvironment());
+        }
+    }
+
+    private record EvictionCandidate(FeatureFlagId id, Entry entry, long lastAccessNanos) {
+    }
+
+    private static final class Entry {
+
+        private final EvaluableFlag flag;
+        private final NameKey nameKey;
+        private final long expiresAtNanos;
+        private volatile long lastAccessNanos;
+
+        private Entry(EvaluableFlag flag, NameKey nameKey, long expiresAtNanos, long lastAccessNanos) {
+            this.flag = flag;
+            this.nameKey = nameKey;
+            this.expiresAtNanos = expiresAtNanos;
+            this.lastAccessNanos = lastAccessNanos;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+}
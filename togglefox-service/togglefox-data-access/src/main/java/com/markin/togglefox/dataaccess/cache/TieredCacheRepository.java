@@ -0,0 +1,152 @@
+package com.markin.togglefox.dataaccess.cache;
+
+import com.markin.togglefox.domain.model.Environment;
+import com.markin.togglefox.domain.model.EvaluableFlag;
+import com.markin.togglefox.domain.model.FeatureFlagId;
+import com.markin.togglefox.port.out.CacheRepository;
+import com.markin.togglefox.port.out.CacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Two-tier flag cache: a local in-process L1 in front of a shared L2 (Redis).
+ *
+ * Reads try L1 first and only go over the network on an L1 miss; L2 hits are
+ * copied back into L1. Writes and evictions go to both tiers. L2 is treated as
+ * best-effort, so a Redis failure degrades to a cache miss instead of failing
+ * the request.
+ *
+ * Its stats count a hit in either tier as a hit, and the time spent reading L2
+ * after an L1 miss as load time. Evictions and size are those of L1.
+ */
+public class TieredCacheRepository implements CacheRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(TieredCacheRepository.class);
+
+    private final CacheRepository local;
+    private final CacheRepository remote;
+    private final Duration localTtl;
+    private final CacheCounters counters = new CacheCounters();
+
+    public TieredCacheRepository(CacheRepository local, CacheRepository remote, Duration localTtl) {
+        this.local = Objects.requireNonNull(local, "Local cache cannot be null");
+        this.remote = Objects.requireNonNull(remote, "Remote cache cannot be null");
+        this.localTtl = Objects.requireNonNull(localTtl, "Local TTL cannot be null");
+    }
+
+    @Override
+    public void put(FeatureFlagId id, EvaluableFlag featureFlag, Duration ttl) {
+        local.put(id, featureFlag, ttl);
+        runRemote("put", () -> remote.put(id, featureFlag, ttl));
+    }
+
+    @Override
+    public Optional<EvaluableFlag> get(FeatureFlagId id) {
+        Optional<EvaluableFlag> cached = local.get(id);
+        if (cached.isPresent()) {
+            counters.recordHit();
+            return cached;
+        }
+        return promote(readRemote("get", () -> remote.get(id), Optional.empty()));
+    }
+
+    @Override
+    public Optional<EvaluableFlag> get(String flagName, Environment environment) {
+        Optional<EvaluableFlag> cached = local.get(flagName, environment);
+        if (cached.isPresent()) {
+            counters.recordHit();
+            return cached;
+        }
+        return promote(readRemote("get", () -> remote.get(flagName, environment), Optional.empty()));
+    }
+
+    @Override
+    public Map<String, EvaluableFlag> getAll(Collection<String> flagNames, Environment environment) {
+        Map<String, EvaluableFlag> found = new HashMap<>(local.getAll(flagNames, environment));
+        List<String> missing = new ArrayList<>(flagNames.size() - found.size());
+        for (String flagName : flagNames) {
+            if (!found.containsKey(flagName)) {
+                missing.add(flagName);
+            }
+        }
+        counters.recordHits(found.size());
+        if (missing.isEmpty()) {
+            return found;
+        }
+
+        // One remote round trip for everything L1 did not have
+        Map<String, EvaluableFlag> fromRemote = readRemote("getAll", () -> remote.getAll(missing, environment), Map.of());
+        counters.recordHits(fromRemote.size());
+        counters.recordMisses(missing.size() - fromRemote.size());
+        if (!fromRemote.isEmpty()) {
+            local.putAll(fromRemote.values(), localTtl);
+            found.putAll(fromRemote);
+        }
+        return found;
+    }
+
+    @Override
+    public void putAll(Collection<EvaluableFlag> featureFlags, Duration ttl) {
+        local.putAll(featureFlags, ttl);
+        runRemote("putAll", () -> remote.putAll(featureFlags, ttl));
+    }
+
+    @Override
+    public void evict(FeatureFlagId id) {
+        local.evict(id);
+        runRemote("evict", () -> remote.evict(id));
+    }
+
+    @Override
+    public void clear() {
+        local.clear();
+        runRemote("clear", remote::clear);
+    }
+
+    @Override
+    public CacheStats stats() {
+        CacheStats localStats = local.stats();
+        return CacheStats.of(counters.hitCount(), counters.missCount(), localStats.evictionCount(),
+                localStats.totalCachedItems(), counters.loadCount(), counters.totalLoadTimeNanos());
+    }
+
+    private Optional<EvaluableFlag> promote(Optional<EvaluableFlag> flag) {
+        if (flag.isPresent()) {
+            counters.recordHit();
+            local.put(flag.get().getId(), flag.get(), localTtl);
+        } else {
+            counters.recordMiss();
+        }
+        return flag;
+    }
+
+    private <T> T readRemote(String operation, Supplier<T> read, T miss) {
+        long start = System.nanoTime();
+        try {
+            return read.get();
+        } catch (RuntimeException e) {
+            logger.warn("Remote cache {} failed, treating as a miss: {}", operation, e.getMessage());
+            return miss;
+        } finally {
+            counters.recordLoad(System.nanoTime() - start);
+        }
+    }
+
+    private void runRemote(String operation, Runnable write) {
+        try {
+            write.run();
+        } catch (RuntimeException e) {
+            logger.warn("Remote cache {} failed: {}", operation, e.getMessage());
+        }
+    }
+}
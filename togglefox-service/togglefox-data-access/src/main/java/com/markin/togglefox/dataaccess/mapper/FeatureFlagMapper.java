@@ -12,6 +12,7 @@ import com.markin.togglefox.domain.strategy.AttributeBasedStrategy;
 import com.markin.togglefox.domain.strategy.PercentageRolloutStrategy;
 import com.markin.togglefox.domain.strategy.RolloutStrategy;
 import com.markin.togglefox.domain.strategy.UserTargetingStrategy;
+import com.markin.togglefox.domain.util.BucketingAlgorithm;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
@@ -39,6 +40,9 @@ public class FeatureFlagMapper {
                 domain.getUpdatedAt()
         );
 
+        // New flags keep a null version so they are inserted; updates are checked against the stored version
+        entity.setVersion(domain.isPersisted() ? domain.getVersion() : null);
+
         // Map strategy
         StrategyEntity strategyEntity = toStrategyEntity(domain.getRolloutStrategy());
         entity.setStrategy(strategyEntity);
@@ -50,8 +54,8 @@ public class FeatureFlagMapper {
      * Convert JPA entity to domain FeatureFlag
      */
     public FeatureFlag toDomain(FeatureFlagEntity entity) {
-        FeatureFlagId flagId = FeatureFlagId.of(entity.getId());
-        Environment environment = Environment.of(entity.getEnvironment());
+        FeatureFlagId flagId = FeatureFlagId.interned(entity.getId());
+        Environment environment = Environment.interned(entity.getEnvironment());
         RolloutStrategy strategy = toDomainStrategy(flagId, entity.getStrategy());
 
         return FeatureFlag.reconstruct(
@@ -62,7 +66,8 @@ public class FeatureFlagMapper {
                 environment,
                 strategy,
                 entity.getCreatedAt(),
-                entity.getUpdatedAt()
+                entity.getUpdatedAt(),
+                entity.getVersion() != null ? entity.getVersion() : 0L
         );
     }
 
@@ -93,13 +98,17 @@ public class FeatureFlagMapper {
         switch (entity.getStrategyType()) {
             case "PERCENTAGE":
                 Integer percentage = (Integer) config.get("percentage");
-                return new PercentageRolloutStrategy(flagId, percentage != null ? percentage : 0);
+                // Rows written before bucketing was configurable used SHA-256
+                Object bucketing = config.get("bucketingAlgorithm");
+                BucketingAlgorithm algorithm = bucketing != null
+                        ? BucketingAlgorithm.fromName(bucketing.toString())
+                        : BucketingAlgorithm.LEGACY_SHA256;
+                return new PercentageRolloutStrategy(flagId, percentage != null ? percentage : 0, algorithm);
 
             case "USER_TARGETING":
                 @SuppressWarnings("unchecked")
                 List<String> users = (List<String>) config.get("users");
-                Set<String> userSet = users != null ? new HashSet<>(users) : new HashSet<>();
-                return new UserTargetingStrategy(flagId, userSet);
+                return new UserTargetingStrategy(flagId, users != null ? users : List.of());
 
             case "ATTRIBUTE_BASED":
                 @SuppressWarnings("unchecked")
@@ -126,11 +135,12 @@ public class FeatureFlagMapper {
             case "PERCENTAGE":
                 PercentageRolloutStrategy percentageStrategy = (PercentageRolloutStrategy) strategy;
                 config.put("percentage", percentageStrategy.getPercentage());
+                config.put("bucketingAlgorithm", percentageStrategy.getBucketingAlgorithm().name());
                 break;
 
             case "USER_TARGETING":
                 UserTargetingStrategy userStrategy = (UserTargetingStrategy) strategy;
-                config.put("users", new ArrayList<>(userStrategy.getTargetedUsers()));
+                config.put("users", userStrategy.getTargetedUsers());
                 break;
 
             case "ATTRIBUTE_BASED":
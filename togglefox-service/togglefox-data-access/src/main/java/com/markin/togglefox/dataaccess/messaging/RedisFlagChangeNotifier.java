@@ -0,0 +1,90 @@
+package com.markin.togglefox.dataaccess.messaging;
+
+import com.markin.togglefox.domain.model.Environment;
+import com.markin.togglefox.domain.model.FeatureFlagId;
+import com.markin.togglefox.port.in.SyncFlagChangeUseCase;
+import com.markin.togglefox.port.out.FlagChangeNotice;
+import com.markin.togglefox.port.out.FlagChangeNotifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Broadcasts flag change notices over a Redis pub/sub channel and applies
+ * the notices published by other nodes.
+ *
+ * Messages are a short pipe-separated line: {@code nodeId|flagId|environment|version|flagName}.
+ * A node ignores its own notices since it has already applied the change locally.
+ */
+public class RedisFlagChangeNotifier implements FlagChangeNotifier, MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisFlagChangeNotifier.class);
+
+    private static final String SEPARATOR = "|";
+
+    private final StringRedisTemplate redisTemplate;
+    private final String channel;
+    private final SyncFlagChangeUseCase syncFlagChangeUseCase;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public RedisFlagChangeNotifier(StringRedisTemplate redisTemplate, String channel,
+                                   SyncFlagChangeUseCase syncFlagChangeUseCase) {
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+        this.syncFlagChangeUseCase = syncFlagChangeUseCase;
+    }
+
+    @Override
+    public void flagChanged(FlagChangeNotice notice) {
+        try {
+            redisTemplate.convertAndSend(channel, encode(notice));
+        } catch (RuntimeException e) {
+            // The change is already saved; other nodes fall back to TTL expiry and snapshot refresh
+            logger.warn("Failed to broadcast change of flag {}: {}", notice.flagId(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        String[] parts = body.split("\\|", 5);
+        if (parts.length != 5) {
+            logger.warn("Ignoring malformed flag change notice: {}", body);
+            return;
+        }
+        if (nodeId.equals(parts[0])) {
+            return;
+        }
+
+        try {
+            FlagChangeNotice notice = new FlagChangeNotice(
+                    FeatureFlagId.of(parts[1]),
+                    parts[4],
+                    Environment.of(parts[2]),
+                    Long.parseLong(parts[3])
+            );
+            logger.debug("Applying change of flag {} (version {}) from node {}",
+                    notice.flagId(), notice.version(), parts[0]);
+            syncFlagChangeUseCase.handleFlagChange(notice);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to apply flag change notice {}: {}", body, e.getMessage());
+        }
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    private String encode(FlagChangeNotice notice) {
+        return nodeId + SEPARATOR
+                + notice.flagId().getValue() + SEPARATOR
+                + notice.environment().getName() + SEPARATOR
+                + notice.version() + SEPARATOR
+                + notice.flagName();
+    }
+}
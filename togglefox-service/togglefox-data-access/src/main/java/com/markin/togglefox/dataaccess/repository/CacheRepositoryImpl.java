@@ -1,54 +1,364 @@
 package com.markin.togglefox.dataaccess.repository;
 
-import com.markin.togglefox.domain.model.FeatureFlag;
+import com.markin.togglefox.dataaccess.cache.CacheCounters;
+import com.markin.togglefox.dataaccess.cache.FeatureFlagCodec;
+import com.markin.togglefox.domain.model.Environment;
+import com.markin.togglefox.domain.model.EvaluableFlag;
 import com.markin.togglefox.domain.model.FeatureFlagId;
 import com.markin.togglefox.port.out.CacheRepository;
+import com.markin.togglefox.port.out.CacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Executor;
 
+/**
+ * Redis flag cache.
+ *
+ * Flags are stored under their (environment, name) key, which is what evaluation looks up.
+ * A secondary id key holds {@code version|nameKey}, so changes that only know the flag id can
+ * still find and invalidate the entry, and a put can refuse to overwrite a newer version.
+ * An evict does not delete the id key but leaves a short-lived tombstone {@code version|}
+ * behind, so a load that was in flight during the change cannot re-cache the evicted copy.
+ *
+ * Every key lives in a namespace numbered by a generation counter. Clearing the cache is a
+ * single INCR of that counter: old keys become unreachable at once and expire on their own,
+ * while a background SCAN unlinks them early without blocking Redis.
+ *
+ * Bulk reads are a single MGET and bulk writes are pipelined, so N flags cost one round trip.
+ *
+ * Only hits and misses are counted here; Redis expires and evicts keys on its own,
+ * so evictions and size are left to the Redis server metrics.
+ */
 @Component
 public class CacheRepositoryImpl implements CacheRepository {
 
-    private static final String KEY_PREFIX = "feature_flag:";
+    private static final Logger logger = LoggerFactory.getLogger(CacheRepositoryImpl.class);
 
-    private final RedisTemplate<String, Object> redisTemplate;
+    static final String KEY_PREFIX = "feature_flag:";
+    private static final String GENERATION_KEY = KEY_PREFIX + "generation";
+    private static final String NAME_SEGMENT = ":name:";
+    private static final int PURGE_BATCH_SIZE = 500;
+    private static final int PIPELINE_BATCH_SIZE = 500;
+    private static final char VERSION_SEPARATOR = '|';
 
-    public CacheRepositoryImpl(RedisTemplate<String, Object> redisTemplate) {
+    // KEYS: id key, name key. ARGV: flag version, encoded flag, TTL in millis.
+    // Writes both keys unless the cached copy is newer, and drops the old name key after a rename.
+    // A tombstone refuses copies that are not newer than the evicted one, or every copy if that
+    // version was not known.
+    private static final RedisScript<Long> PUT_IF_NOT_OLDER = new DefaultRedisScript<>("""
+            local current = redis.call('GET', KEYS[1])
+            if current then
+                local separator = string.find(current, '|', 1, true)
+                local version = tonumber(string.sub(current, 1, separator - 1))
+                local currentNameKey = string.sub(current, separator + 1)
+                if currentNameKey == '' then
+                    if version == nil or version >= tonumber(ARGV[1]) then
+                        return 0
+                    end
+                elseif version > tonumber(ARGV[1]) then
+                    return 0
+                elseif currentNameKey ~= KEYS[2] then
+                    redis.call('DEL', currentNameKey)
+                end
+            end
+            redis.call('SET', KEYS[2], ARGV[2], 'PX', ARGV[3])
+            redis.call('SET', KEYS[1], ARGV[1] .. '|' .. KEYS[2], 'PX', ARGV[3])
+            return 1
+            """, Long.class);
+    private static final byte[] PUT_IF_NOT_OLDER_SCRIPT = utf8(PUT_IF_NOT_OLDER.getScriptAsString());
+
+    // KEYS: id key. ARGV: tombstone TTL in millis.
+    // Deletes the name key and replaces the id key with a tombstone keeping the evicted version.
+    private static final RedisScript<Long> EVICT_TO_TOMBSTONE = new DefaultRedisScript<>("""
+            local current = redis.call('GET', KEYS[1])
+            local version = ''
+            if current then
+                local separator = string.find(current, '|', 1, true)
+                version = string.sub(current, 1, separator - 1)
+                local currentNameKey = string.sub(current, separator + 1)
+                if currentNameKey ~= '' then
+                    redis.call('DEL', currentNameKey)
+                end
+            end
+            redis.call('SET', KEYS[1], version .. '|', 'PX', ARGV[1])
+            return 1
+            """, Long.class);
+    private static final String NO_SCRIPT = "NOSCRIPT";
+
+    private final RedisTemplate<String, EvaluableFlag> redisTemplate;
+    private final StringRedisTemplate indexTemplate;
+    private final Executor purgeExecutor;
+    private final long generationRefreshNanos;
+    private final byte[] tombstoneTtlMillis;
+    private final CacheCounters counters = new CacheCounters();
+
+    // Generation is cached locally and re-read periodically, so other nodes' clears are seen within the refresh interval
+    private volatile long generation = -1;
+    private volatile long generationReadAt;
+
+    public CacheRepositoryImpl(RedisTemplate<String, EvaluableFlag> redisTemplate,
+                               StringRedisTemplate indexTemplate,
+                               @Qualifier("cachePurgeExecutor") Executor purgeExecutor,
+                               @Value("${togglefox.cache.redis.generation-refresh:1s}") Duration generationRefresh,
+                               @Value("${togglefox.cache.redis.tombstone-ttl:5s}") Duration tombstoneTtl) {
         this.redisTemplate = redisTemplate;
+        this.indexTemplate = indexTemplate;
+        this.purgeExecutor = purgeExecutor;
+        this.generationRefreshNanos = generationRefresh.toNanos();
+        this.tombstoneTtlMillis = utf8(Long.toString(tombstoneTtl.toMillis()));
     }
 
     @Override
-    public void put(FeatureFlagId id, FeatureFlag featureFlag, Duration ttl) {
-        String key = buildKey(id);
-        redisTemplate.opsForValue().set(key, featureFlag, ttl);
+    public void put(FeatureFlagId id, EvaluableFlag featureFlag, Duration ttl) {
+        long currentGeneration = currentGeneration();
+        String idKey = buildIdKey(currentGeneration, id);
+        String nameKey = buildNameKey(currentGeneration, featureFlag.getName(), featureFlag.getEnvironment());
+
+        indexTemplate.execute(PUT_IF_NOT_OLDER, RedisSerializer.byteArray(),
+                new GenericToStringSerializer<>(Long.class),
+                List.of(idKey, nameKey),
+                utf8(Long.toString(featureFlag.getVersion())),
+                FeatureFlagCodec.encode(featureFlag),
+                utf8(Long.toString(ttl.toMillis())));
     }
 
     @Override
-    public Optional<FeatureFlag> get(FeatureFlagId id) {
-        String key = buildKey(id);
-        FeatureFlag cached = (FeatureFlag) redisTemplate.opsForValue().get(key);
-        return Optional.ofNullable(cached);
+    public Optional<EvaluableFlag> get(FeatureFlagId id) {
+        String nameKey = nameKeyOf(indexTemplate.opsForValue().get(buildIdKey(currentGeneration(), id)));
+        if (nameKey == null) {
+            counters.recordMiss();
+            return Optional.empty();
+        }
+        return record(redisTemplate.opsForValue().get(nameKey));
+    }
+
+    @Override
+    public Optional<EvaluableFlag> get(String flagName, Environment environment) {
+        return record(redisTemplate.opsForValue().get(buildNameKey(currentGeneration(), flagName, environment)));
+    }
+
+    @Override
+    public Map<String, EvaluableFlag> getAll(Collection<String> flagNames, Environment environment) {
+        if (flagNames.isEmpty()) {
+            return new HashMap<>();
+        }
+
+        long currentGeneration = currentGeneration();
+        List<String> names = new ArrayList<>(flagNames);
+        List<String> keys = new ArrayList<>(names.size());
+        for (String flagName : names) {
+            keys.add(buildNameKey(currentGeneration, flagName, environment));
+        }
+
+        List<EvaluableFlag> cached = redisTemplate.opsForValue().multiGet(keys);
+        Map<String, EvaluableFlag> found = new HashMap<>();
+        if (cached != null) {
+            for (int i = 0; i < names.size(); i++) {
+                EvaluableFlag flag = cached.get(i);
+                if (flag != null) {
+                    found.put(names.get(i), flag);
+                }
+            }
+        }
+        counters.recordHits(found.size());
+        counters.recordMisses(names.size() - found.size());
+        return found;
+    }
+
+    @Override
+    public void putAll(Collection<EvaluableFlag> featureFlags, Duration ttl) {
+        long currentGeneration = currentGeneration();
+        byte[] ttlMillis = utf8(Long.toString(ttl.toMillis()));
+
+        List<EvaluableFlag> flags = new ArrayList<>(featureFlags);
+        for (int start = 0; start < flags.size(); start += PIPELINE_BATCH_SIZE) {
+            List<EvaluableFlag> batch = flags.subList(start, Math.min(start + PIPELINE_BATCH_SIZE, flags.size()));
+            try {
+                pipelinePuts(batch, currentGeneration, ttlMillis);
+            } catch (RuntimeException e) {
+                if (!isNoScript(e)) {
+                    throw e;
+                }
+                // Redis lost its script cache (restart or SCRIPT FLUSH); load the script once and resend the batch
+                indexTemplate.execute((RedisCallback<String>) connection ->
+                        connection.scriptingCommands().scriptLoad(PUT_IF_NOT_OLDER_SCRIPT));
+                pipelinePuts(batch, currentGeneration, ttlMillis);
+            }
+        }
+    }
+
+    /**
+     * Pipeline the put script by its SHA, so the script body is not sent once per flag
+     */
+    private void pipelinePuts(List<EvaluableFlag> batch, long currentGeneration, byte[] ttlMillis) {
+        String sha = PUT_IF_NOT_OLDER.getSha1();
+        indexTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (EvaluableFlag flag : batch) {
+                connection.scriptingCommands().evalSha(sha, ReturnType.INTEGER, 2,
+                        utf8(buildIdKey(currentGeneration, flag.getId())),
+                        utf8(buildNameKey(currentGeneration, flag.getName(), flag.getEnvironment())),
+                        utf8(Long.toString(flag.getVersion())),
+                        FeatureFlagCodec.encode(flag),
+                        ttlMillis);
+            }
+            return null;
+        });
+    }
+
+    private static boolean isNoScript(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause.getMessage() != null && cause.getMessage().contains(NO_SCRIPT)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     @Override
     public void evict(FeatureFlagId id) {
-        String key = buildKey(id);
-        redisTemplate.delete(key);
+        indexTemplate.execute(EVICT_TO_TOMBSTONE, RedisSerializer.byteArray(),
+                new GenericToStringSerializer<>(Long.class),
+                List.of(buildIdKey(currentGeneration(), id)),
+                tombstoneTtlMillis);
     }
 
     @Override
     public void clear() {
-        String pattern = KEY_PREFIX + "*";
-        var keys = redisTemplate.keys(pattern);
-        if (keys != null && !keys.isEmpty()) {
-            redisTemplate.delete(keys);
+        Long next = indexTemplate.opsForValue().increment(GENERATION_KEY);
+        if (next == null) {
+            return;
+        }
+
+        long previous = next - 1;
+        generation = next;
+        generationReadAt = System.nanoTime();
+
+        purgeExecutor.execute(() -> purgeGeneration(previous));
+    }
+
+    @Override
+    public CacheStats stats() {
+        return counters.snapshot(0);
+    }
+
+    private Optional<EvaluableFlag> record(EvaluableFlag cached) {
+        if (cached != null) {
+            counters.recordHit();
+        } else {
+            counters.recordMiss();
+        }
+        return Optional.ofNullable(cached);
+    }
+
+    private long currentGeneration() {
+        long now = System.nanoTime();
+        if (generation < 0 || now - generationReadAt >= generationRefreshNanos) {
+            String stored = indexTemplate.opsForValue().get(GENERATION_KEY);
+            generation = stored != null ? Long.parseLong(stored) : 0L;
+            generationReadAt = now;
+        }
+        return generation;
+    }
+
+    /**
+     * Unlink the keys of a retired generation in small SCAN batches
+     */
+    private void purgeGeneration(long retiredGeneration) {
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(KEY_PREFIX + retiredGeneration + ":*")
+                .count(PURGE_BATCH_SIZE)
+                .build();
+
+        long purged = 0;
+        List<String> batch = new ArrayList<>(PURGE_BATCH_SIZE);
+        try (Cursor<String> cursor = indexTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                batch.add(cursor.next());
+                if (batch.size() == PURGE_BATCH_SIZE) {
+                    purged += unlink(batch);
+                }
+            }
+            purged += unlink(batch);
+            logger.debug("Purged {} keys of cache generation {}", purged, retiredGeneration);
+        } catch (RuntimeException e) {
+            // The keys still expire through their TTL
+            logger.warn("Failed to purge cache generation {}: {}", retiredGeneration, e.getMessage());
+        }
+    }
+
+    private long unlink(List<String> keys) {
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        Long unlinked = indexTemplate.unlink(keys);
+        keys.clear();
+        return unlinked != null ? unlinked : 0;
+    }
+
+    /**
+     * The name key an id key points at, or null if the id key is missing or a tombstone
+     */
+    private String nameKeyOf(String indexValue) {
+        if (indexValue == null) {
+            return null;
+        }
+        String nameKey = indexValue.substring(indexValue.indexOf(VERSION_SEPARATOR) + 1);
+        return nameKey.isEmpty() ? null : nameKey;
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private String buildIdKey(long generation, FeatureFlagId id) {
+        return KEY_PREFIX + generation + ":id:" + id.getValue();
+    }
+
+    private String buildNameKey(long generation, String flagName, Environment environment) {
+        return KEY_PREFIX + generation + NAME_SEGMENT + flagKey(flagName, environment);
+    }
+
+    /**
+     * Generation-independent part of a name key, {@code environment:flagName}
+     */
+    static String flagKey(String flagName, Environment environment) {
+        return environment.getName() + ":" + flagName;
+    }
+
+    /**
+     * The {@link #flagKey} of a name key in any generation, or null if the key is not a name key
+     */
+    static String flagKeyOf(String redisKey) {
+        if (!redisKey.startsWith(KEY_PREFIX)) {
+            return null;
         }
+        int segment = redisKey.indexOf(NAME_SEGMENT, KEY_PREFIX.length());
+        return segment >= 0 ? redisKey.substring(segment + NAME_SEGMENT.length()) : null;
     }
 
-    private String buildKey(FeatureFlagId id) {
-        return KEY_PREFIX + id.getValue();
+    static boolean isGenerationKey(String redisKey) {
+        return GENERATION_KEY.equals(redisKey);
     }
 }
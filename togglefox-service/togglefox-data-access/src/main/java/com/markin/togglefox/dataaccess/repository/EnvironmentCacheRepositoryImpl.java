@@ -0,0 +1,193 @@
+package com.markin.togglefox.dataaccess.repository;
+
+import com.markin.togglefox.dataaccess.cache.FeatureFlagCodec;
+import com.markin.togglefox.domain.model.Environment;
+import com.markin.togglefox.domain.model.EvaluableFlag;
+import com.markin.togglefox.port.out.EnvironmentCacheRepository;
+import com.markin.togglefox.port.out.EnvironmentFlags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+/**
+ * Redis cache of whole environments.
+ *
+ * Each environment is one hash: a {@code f:<flagId>} field with the encoded flag and a
+ * {@code v:<flagId>} field with its version for every flag, plus a {@code version} field.
+ * The whole environment is read with a single HGETALL, and its version with a single HGET.
+ *
+ * A hash without the {@code version} field is not a cached environment yet: an update that
+ * finds no cached environment still records its flag there, and the full store that follows
+ * keeps any flag field that is newer than the copy it loaded. Readers treat such a hash as
+ * a miss. Both scripts run by their SHA and are only sent in full when Redis lacks them.
+ *
+ * Environment versions come from one shared sequence, so a rebuilt hash never reuses a version
+ * that a reader may still hold. Hashes expire after a TTL and are then rebuilt from the database,
+ * which bounds how long a missed update can go unnoticed.
+ */
+@Component
+public class EnvironmentCacheRepositoryImpl implements EnvironmentCacheRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(EnvironmentCacheRepositoryImpl.class);
+
+    private static final String KEY_PREFIX = "feature_flag_env:";
+    private static final String VERSION_SEQUENCE_KEY = KEY_PREFIX + "version_sequence";
+    private static final String VERSION_FIELD = "version";
+    private static final String FLAG_FIELD_PREFIX = "f:";
+
+    // KEYS: hash, version sequence. ARGV: TTL in millis, then flag id/version/encoded flag triples.
+    // Skips flags an update already recorded in a newer version.
+    private static final RedisScript<Long> STORE_IF_ABSENT = new DefaultRedisScript<>("""
+            if redis.call('HEXISTS', KEYS[1], 'version') == 1 then
+                return 0
+            end
+            for i = 2, #ARGV, 3 do
+                local current = redis.call('HGET', KEYS[1], 'v:' .. ARGV[i])
+                if not current or tonumber(current) <= tonumber(ARGV[i + 1]) then
+                    redis.call('HSET', KEYS[1], 'f:' .. ARGV[i], ARGV[i + 2], 'v:' .. ARGV[i], ARGV[i + 1])
+                end
+            end
+            redis.call('HSET', KEYS[1], 'version', redis.call('INCR', KEYS[2]))
+            redis.call('PEXPIRE', KEYS[1], ARGV[1])
+            return 1
+            """, Long.class);
+
+    // KEYS: hash, version sequence. ARGV: flag id, flag version, encoded flag, TTL in millis.
+    // Never replaces a newer flag. Without a cached environment the flag is only recorded for
+    // the next full store, and the environment version is left unset.
+    private static final RedisScript<Long> UPDATE_FLAG = new DefaultRedisScript<>("""
+            local current = redis.call('HGET', KEYS[1], 'v:' .. ARGV[1])
+            if current and tonumber(current) > tonumber(ARGV[2]) then
+                return 0
+            end
+            redis.call('HSET', KEYS[1], 'f:' .. ARGV[1], ARGV[3], 'v:' .. ARGV[1], ARGV[2])
+            if redis.call('HEXISTS', KEYS[1], 'version') == 0 then
+                redis.call('PEXPIRE', KEYS[1], ARGV[4])
+                return 0
+            end
+            redis.call('HSET', KEYS[1], 'version', redis.call('INCR', KEYS[2]))
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration ttl;
+
+    public EnvironmentCacheRepositoryImpl(StringRedisTemplate redisTemplate,
+                                          @Value("${togglefox.cache.environment.ttl:1m}") Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public OptionalLong version(Environment environment) {
+        try {
+            String version = redisTemplate.<String>opsForHash().get(buildKey(environment), VERSION_FIELD);
+            return version != null ? OptionalLong.of(Long.parseLong(version)) : OptionalLong.empty();
+        } catch (RuntimeException e) {
+            logger.warn("Failed to read cached version of environment {}: {}", environment, e.getMessage());
+            return OptionalLong.empty();
+        }
+    }
+
+    @Override
+    public Optional<EnvironmentFlags> fetch(Environment environment) {
+        try {
+            Map<byte[], byte[]> fields = redisTemplate.execute((RedisCallback<Map<byte[], byte[]>>) connection ->
+                    connection.hashCommands().hGetAll(utf8(buildKey(environment))));
+            return fields != null ? parse(environment, fields) : Optional.empty();
+        } catch (RuntimeException e) {
+            logger.warn("Failed to fetch cached environment {}: {}", environment, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void storeIfAbsent(Environment environment, List<EvaluableFlag> flags) {
+        byte[][] args = new byte[1 + flags.size() * 3][];
+        args[0] = ttlMillis();
+        int i = 1;
+        for (EvaluableFlag flag : flags) {
+            args[i++] = utf8(flag.getId().getValue());
+            args[i++] = utf8(Long.toString(flag.getVersion()));
+            args[i++] = FeatureFlagCodec.encode(flag);
+        }
+
+        try {
+            execute(STORE_IF_ABSENT, environment, args);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to cache environment {}: {}", environment, e.getMessage());
+        }
+    }
+
+    @Override
+    public void update(EvaluableFlag flag) {
+        try {
+            execute(UPDATE_FLAG, flag.getEnvironment(),
+                    utf8(flag.getId().getValue()),
+                    utf8(Long.toString(flag.getVersion())),
+                    FeatureFlagCodec.encode(flag),
+                    ttlMillis());
+        } catch (RuntimeException e) {
+            // The cached environment stays behind until it expires; pub/sub still reaches live nodes
+            logger.warn("Failed to update flag {} in cached environment {}: {}",
+                    flag.getId(), flag.getEnvironment(), e.getMessage());
+        }
+    }
+
+    /**
+     * Run a script on the environment hash by its SHA; the template falls back to a full EVAL on NOSCRIPT
+     */
+    private void execute(RedisScript<Long> script, Environment environment, byte[]... args) {
+        redisTemplate.execute(script, RedisSerializer.byteArray(), new GenericToStringSerializer<>(Long.class),
+                List.of(buildKey(environment), VERSION_SEQUENCE_KEY), (Object[]) args);
+    }
+
+    private byte[] ttlMillis() {
+        return utf8(Long.toString(ttl.toMillis()));
+    }
+
+    private Optional<EnvironmentFlags> parse(Environment environment, Map<byte[], byte[]> fields) {
+        if (fields.isEmpty()) {
+            return Optional.empty();
+        }
+
+        long version = -1;
+        List<EvaluableFlag> flags = new ArrayList<>(fields.size() / 2);
+        for (Map.Entry<byte[], byte[]> field : fields.entrySet()) {
+            String name = new String(field.getKey(), StandardCharsets.UTF_8);
+            if (name.startsWith(FLAG_FIELD_PREFIX)) {
+                flags.add(FeatureFlagCodec.decode(field.getValue()));
+            } else if (name.equals(VERSION_FIELD)) {
+                version = Long.parseLong(new String(field.getValue(), StandardCharsets.UTF_8));
+            }
+        }
+        if (version < 0) {
+            // Only a full store sets the version; until then the hash just holds updates waiting for it
+            return Optional.empty();
+        }
+        return Optional.of(new EnvironmentFlags(environment, version, flags));
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private String buildKey(Environment environment) {
+        return KEY_PREFIX + environment.getName();
+    }
+}
@@ -25,7 +25,8 @@ public class FeatureFlagRepositoryImpl implements FeatureFlagRepository {
     @Override
     public FeatureFlag save(FeatureFlag featureFlag) {
         var entity = mapper.toEntity(featureFlag);
-        var savedEntity = jpaRepository.save(entity);
+        // Flush so the returned flag carries the version and timestamps of this write
+        var savedEntity = jpaRepository.saveAndFlush(entity);
         return mapper.toDomain(savedEntity);
     }
 
@@ -0,0 +1,334 @@
+package com.markin.togglefox.dataaccess.repository;
+
+import com.markin.togglefox.dataaccess.cache.CacheCounters;
+import com.markin.togglefox.domain.model.Environment;
+import com.markin.togglefox.domain.model.EvaluableFlag;
+import com.markin.togglefox.domain.model.FeatureFlagId;
+import com.markin.togglefox.port.out.CacheRepository;
+import com.markin.togglefox.port.out.CacheStats;
+import io.lettuce.core.RedisChannelHandler;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisConnectionStateListener;
+import io.lettuce.core.TrackingArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.push.PushMessage;
+import io.lettuce.core.codec.StringCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.SocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Near-cache in front of the Redis flag cache, kept coherent by Redis client-side caching.
+ *
+ * A dedicated RESP3 connection enables broadcast key tracking on the flag key prefix, so Redis
+ * pushes an invalidation for every name key that is written, deleted or expires, and for the
+ * generation key when the cache is cleared. Flags stay in the near-cache until such an
+ * invalidation arrives, so reads of unchanged flags never leave the process. Once the near-cache
+ * grows past its maximum size, the least recently read flags are dropped.
+ *
+ * While the tracking connection is down invalidations may be lost, so the near-cache is
+ * emptied and bypassed until tracking has been re-enabled.
+ */
+public class TrackingCacheRepository implements CacheRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrackingCacheRepository.class);
+
+    private static final String INVALIDATE = "invalidate";
+
+    // Evict down to this fraction of maxSize so eviction is not repeated on every load
+    private static final double EVICTION_TARGET = 0.9;
+
+    private final CacheRepository delegate;
+    private final RedisClient redisClient;
+    private final int maxSize;
+
+    // Values are Cached flags, or a Loading marker while a read is in flight
+    private final Map<String, Object> entries = new ConcurrentHashMap<>();
+    private final Map<FeatureFlagId, String> keysById = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final CacheCounters counters = new CacheCounters();
+
+    private volatile StatefulRedisConnection<String, String> trackingConnection;
+    private volatile boolean tracking;
+
+    public TrackingCacheRepository(CacheRepository delegate, RedisClient redisClient, int maxSize) {
+        this.delegate = Objects.requireNonNull(delegate, "Delegate cache cannot be null");
+        this.redisClient = Objects.requireNonNull(redisClient, "Redis client cannot be null");
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Max size must be positive");
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Open the tracking connection and start listening for invalidations
+     */
+    public void start() {
+        redisClient.addListener(new RedisConnectionStateListener() {
+            @Override
+            public void onRedisConnected(RedisChannelHandler<?, ?> connection, SocketAddress socketAddress) {
+                if (connection == trackingConnection) {
+                    enableTracking();
+                }
+            }
+
+            @Override
+            public void onRedisDisconnected(RedisChannelHandler<?, ?> connection) {
+                if (connection == trackingConnection) {
+                    tracking = false;
+                    clearEntries();
+                    logger.warn("Redis tracking connection lost, bypassing near-cache");
+                }
+            }
+        });
+
+        trackingConnection = redisClient.connect();
+        trackingConnection.addListener(this::onPushMessage);
+        enableTracking();
+    }
+
+    public void stop() {
+        tracking = false;
+        clearEntries();
+        if (trackingConnection != null) {
+            trackingConnection.close();
+        }
+    }
+
+    @Override
+    public void put(FeatureFlagId id, EvaluableFlag featureFlag, Duration ttl) {
+        delegate.put(id, featureFlag, ttl);
+        removeEntry(CacheRepositoryImpl.flagKey(featureFlag.getName(), featureFlag.getEnvironment()));
+    }
+
+    @Override
+    public Optional<EvaluableFlag> get(FeatureFlagId id) {
+        return delegate.get(id);
+    }
+
+    @Override
+    public Optional<EvaluableFlag> get(String flagName, Environment environment) {
+        String key = CacheRepositoryImpl.flagKey(flagName, environment);
+        if (entries.get(key) instanceof Cached cached) {
+            cached.lastAccessNanos = System.nanoTime();
+            counters.recordHit();
+            return Optional.of(cached.flag);
+        }
+
+        counters.recordMiss();
+        Loading loading = startLoading(key);
+        Optional<EvaluableFlag> flag = delegate.get(flagName, environment);
+        finishLoading(key, loading, flag.orElse(null));
+        return flag;
+    }
+
+    @Override
+    public Map<String, EvaluableFlag> getAll(Collection<String> flagNames, Environment environment) {
+        Map<String, EvaluableFlag> found = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String flagName : flagNames) {
+            if (entries.get(CacheRepositoryImpl.flagKey(flagName, environment)) instanceof Cached cached) {
+                cached.lastAccessNanos = System.nanoTime();
+                found.put(flagName, cached.flag);
+            } else {
+                missing.add(flagName);
+            }
+        }
+        counters.recordHits(found.size());
+        counters.recordMisses(missing.size());
+        if (missing.isEmpty()) {
+            return found;
+        }
+
+        Map<String, Loading> loadings = new HashMap<>();
+        for (String flagName : missing) {
+            loadings.put(flagName, startLoading(CacheRepositoryImpl.flagKey(flagName, environment)));
+        }
+        Map<String, EvaluableFlag> loaded = delegate.getAll(missing, environment);
+        for (String flagName : missing) {
+            finishLoading(CacheRepositoryImpl.flagKey(flagName, environment), loadings.get(flagName),
+                    loaded.get(flagName));
+        }
+        found.putAll(loaded);
+        return found;
+    }
+
+    @Override
+    public void putAll(Collection<EvaluableFlag> featureFlags, Duration ttl) {
+        delegate.putAll(featureFlags, ttl);
+        for (EvaluableFlag flag : featureFlags) {
+            removeEntry(CacheRepositoryImpl.flagKey(flag.getName(), flag.getEnvironment()));
+        }
+    }
+
+    @Override
+    public void evict(FeatureFlagId id) {
+        delegate.evict(id);
+        String key = keysById.get(id);
+        if (key != null) {
+            removeEntry(key);
+        }
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+        clearEntries();
+    }
+
+    @Override
+    public CacheStats stats() {
+        return counters.snapshot(entries.size());
+    }
+
+    public boolean isTracking() {
+        return tracking;
+    }
+
+    /**
+     * Mark a key as being read, so an invalidation arriving during the read stops its result from being kept
+     */
+    private Loading startLoading(String key) {
+        if (!tracking) {
+            return null;
+        }
+        Loading loading = new Loading();
+        return entries.putIfAbsent(key, loading) == null ? loading : null;
+    }
+
+    private void finishLoading(String key, Loading loading, EvaluableFlag flag) {
+        if (loading == null) {
+            return;
+        }
+        if (flag == null || !tracking) {
+            entries.remove(key, loading);
+            return;
+        }
+
+        // Index first, so an evict by id racing with this load still finds the key
+        keysById.put(flag.getId(), key);
+        if (!entries.replace(key, loading, new Cached(flag))) {
+            keysById.remove(flag.getId(), key);
+            return;
+        }
+        if (entries.size() > maxSize) {
+            evictExcess();
+        }
+    }
+
+    private void removeEntry(String key) {
+        if (entries.remove(key) instanceof Cached cached) {
+            keysById.remove(cached.flag.getId(), key);
+        }
+    }
+
+    private void clearEntries() {
+        entries.clear();
+        keysById.clear();
+    }
+
+    /**
+     * Drop the least recently read flags until the near-cache is back under its target size.
+     * Only one thread evicts at a time; others carry on and leave the near-cache briefly over its bound.
+     */
+    private void evictExcess() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            int excess = entries.size() - (int) (maxSize * EVICTION_TARGET);
+            if (excess <= 0) {
+                return;
+            }
+
+            // Capture access times up front; they keep moving while we sort
+            List<EvictionCandidate> candidates = new ArrayList<>(entries.size());
+            entries.forEach((key, value) -> {
+                if (value instanceof Cached cached) {
+                    candidates.add(new EvictionCandidate(key, cached, cached.lastAccessNanos));
+                }
+            });
+            candidates.sort(Comparator.comparingLong(EvictionCandidate::lastAccessNanos));
+            for (int i = 0; i < excess && i < candidates.size(); i++) {
+                EvictionCandidate candidate = candidates.get(i);
+                if (entries.remove(candidate.key(), candidate.cached())) {
+                    keysById.remove(candidate.cached().flag.getId(), candidate.key());
+                    counters.recordEviction();
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private void enableTracking() {
+        trackingConnection.async()
+                .clientTracking(TrackingArgs.Builder.enabled().bcast().prefixes(CacheRepositoryImpl.KEY_PREFIX))
+                .whenComplete((result, error) -> {
+                    if (error != null) {
+                        logger.warn("Failed to enable Redis key tracking, near-cache stays bypassed: {}",
+                                error.getMessage());
+                        return;
+                    }
+                    clearEntries();
+                    tracking = true;
+                    logger.info("Redis key tracking enabled for prefix {}", CacheRepositoryImpl.KEY_PREFIX);
+                });
+    }
+
+    private void onPushMessage(PushMessage message) {
+        if (!INVALIDATE.equals(message.getType())) {
+            return;
+        }
+
+        List<Object> content = message.getContent(StringCodec.UTF8::decodeKey);
+        // A null key list means Redis flushed everything
+        if (content.size() < 2 || !(content.get(1) instanceof List<?> keys)) {
+            clearEntries();
+            return;
+        }
+        for (Object key : keys) {
+            invalidate(String.valueOf(key));
+        }
+    }
+
+    private void invalidate(String redisKey) {
+        if (CacheRepositoryImpl.isGenerationKey(redisKey)) {
+            clearEntries();
+            return;
+        }
+        String flagKey = CacheRepositoryImpl.flagKeyOf(redisKey);
+        if (flagKey != null) {
+            removeEntry(flagKey);
+        }
+    }
+
+    private record EvictionCandidate(String key, Cached cached, long lastAccessNanos) {
+    }
+
+    private static final class Cached {
+
+        private final EvaluableFlag flag;
+        private volatile long lastAccessNanos;
+
+        private Cached(EvaluableFlag flag) {
+            this.flag = flag;
+            this.lastAccessNanos = System.nanoTime();
+        }
+    }
+
+    private static final class Loading {
+    }
+}
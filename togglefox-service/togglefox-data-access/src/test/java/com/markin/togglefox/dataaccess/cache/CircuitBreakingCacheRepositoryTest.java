@@ -0,0 +1,191 @@
+package com.markin.togglefox.dataaccess.cache;
+
+import com.markin.togglefox.domain.model.Environment;
+import com.markin.togglefox.domain.model.EvaluableFlag;
+import com.markin.togglefox.domain.model.FeatureFlagId;
+import com.markin.togglefox.port.out.CacheRepository;
+import com.markin.togglefox.port.out.CacheStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakingCacheRepositoryTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final FakeRemoteCache remote = new FakeRemoteCache();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should treat calls over the latency budget as misses and open after repeated failures")
+    void shouldOpenAfterRepeatedSlowCalls() {
+        // Given
+        CircuitBreakingCacheRepository cache = createBreaker();
+        remote.delayMillis = 500;
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            assertThat(cache.get("slow-flag", Environment.production())).isEmpty();
+        }
+        cache.get("slow-flag", Environment.production());
+
+        // Then
+        assertThat(cache.isOpen()).isTrue();
+        assertThat(remote.calls.get()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should close after a successful probe and evict flags written during the outage")
+    void shouldCloseAfterSuccessfulProbe() throws InterruptedException {
+        // Given
+        CircuitBreakingCacheRepository cache = createBreaker();
+        remote.failing = true;
+        for (int i = 0; i < 3; i++) {
+            cache.get("flag", Environment.production());
+        }
+        FeatureFlagId changed = FeatureFlagId.generate();
+        cache.evict(changed);
+
+        // When
+        remote.failing = false;
+        clock.addAndGet(Duration.ofSeconds(11).toNanos());
+        cache.get("flag", Environment.production());
+
+        // Then
+        assertThat(cache.isOpen()).isFalse();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(remote.evicted).contains(changed);
+    }
+
+    @Test
+    @DisplayName("Should replay an evict that timed out while the breaker stayed closed")
+    void shouldReplayEvictThatTimedOutBelowThreshold() throws InterruptedException {
+        // Given
+        CircuitBreakingCacheRepository cache = createBreaker();
+        FeatureFlagId changed = FeatureFlagId.generate();
+        remote.delayMillis = 500;
+        cache.evict(changed);
+
+        // When
+        remote.delayMillis = 0;
+        cache.get("flag", Environment.production());
+
+        // Then
+        assertThat(cache.isOpen()).isFalse();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(remote.evicted).containsExactly(changed);
+    }
+
+    @Test
+    @DisplayName("Should stay open when the probe fails")
+    void shouldStayOpenWhenProbeFails() {
+        // Given
+        CircuitBreakingCacheRepository cache = createBreaker();
+        remote.failing = true;
+        for (int i = 0; i < 3; i++) {
+            cache.get("flag", Environment.production());
+        }
+
+        // When
+        clock.addAndGet(Duration.ofSeconds(11).toNanos());
+        cache.get("flag", Environment.production());
+        cache.get("flag", Environment.production());
+
+        // Then
+        assertThat(cache.isOpen()).isTrue();
+        assertThat(remote.calls.get()).isEqualTo(4);
+    }
+
+    private CircuitBreakingCacheRepository createBreaker() {
+        return new CircuitBreakingCacheRepository(remote, executor, Duration.ofMillis(20), 3,
+                Duration.ofSeconds(10), clock::get);
+    }
+
+    private static class FakeRemoteCache implements CacheRepository {
+
+        private final AtomicInteger calls = new AtomicInteger();
+        private final List<FeatureFlagId> evicted = new CopyOnWriteArrayList<>();
+        private volatile boolean failing;
+        private volatile long delayMillis;
+
+        @Override
+        public void put(FeatureFlagId id, EvaluableFlag featureFlag, Duration ttl) {
+            call();
+        }
+
+        @Override
+        public Optional<EvaluableFlag> get(FeatureFlagId id) {
+            call();
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<EvaluableFlag> get(String flagName, Environment environment) {
+            call();
+            return Optional.empty();
+        }
+
+        @Override
+        public Map<String, EvaluableFlag> getAll(Collection<String> flagNames, Environment environment) {
+            call();
+            return Map.of();
+        }
+
+        @Override
+        public void putAll(Collection<EvaluableFlag> featureFlags, Duration ttl) {
+            call();
+        }
+
+        @Override
+        public void evict(FeatureFlagId id) {
+            call();
+            evicted.add(id);
+        }
+
+        @Override
+        public void clear() {
+            call();
+        }
+
+        @Override
+        public CacheStats stats() {
+            return CacheStats.empty();
+        }
+
+        private void call() {
+            calls.incrementAndGet();
+            if (delayMillis > 0) {
+                try {
+                    Thread.sleep(delayMillis);
+                } catch (InterruptedException e) {
+                    // A call cancelled after its latency budget never reaches Redis
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Redis call cancelled");
+                }
+            }
+            if (failing) {
+                throw new IllegalStateException("Redis unavailable");
+            }
+        }
+    }
+}
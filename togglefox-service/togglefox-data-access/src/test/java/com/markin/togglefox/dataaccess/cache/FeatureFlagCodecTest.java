@@ -0,0 +1,100 @@
+package com.markin.togglefox.dataaccess.cache;
+
+import com.markin.togglefox.domain.model.Environment;
+import com.markin.togglefox.domain.model.EvaluableFlag;
+import com.markin.togglefox.domain.model.FeatureFlag;
+import com.markin.togglefox.domain.model.FeatureFlagId;
+import com.markin.togglefox.domain.strategy.AttributeBasedStrategy;
+import com.markin.togglefox.domain.strategy.PercentageRolloutStrategy;
+import com.markin.togglefox.domain.strategy.RolloutStrategy;
+import com.markin.togglefox.domain.strategy.UserTargetingStrategy;
+import com.markin.togglefox.domain.util.BucketingAlgorithm;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FeatureFlagCodecTest {
+
+    private final FeatureFlagId flagId = FeatureFlagId.generate();
+
+    @Test
+    @DisplayName("Should round-trip percentage rollout flag")
+    void shouldRoundTripPercentageRolloutFlag() {
+        // Given
+        EvaluableFlag flag = createFlag(new PercentageRolloutStrategy(flagId, 42, BucketingAlgorithm.LEGACY_SHA256));
+
+        // When
+        EvaluableFlag decoded = FeatureFlagCodec.decode(FeatureFlagCodec.encode(flag));
+
+        // Then
+        assertThat(decoded.getId()).isEqualTo(flag.getId());
+        assertThat(decoded.getName()).isEqualTo(flag.getName());
+        assertThat(decoded.isEnabled()).isTrue();
+        assertThat(decoded.getEnvironment()).isEqualTo(Environment.production());
+        assertThat(decoded.getVersion()).isEqualTo(7L);
+        assertThat(decoded.getStrategy()).isEqualTo(flag.getStrategy());
+    }
+
+    @Test
+    @DisplayName("Should round-trip user targeting flag with non-ASCII user ids")
+    void shouldRoundTripUserTargetingFlag() {
+        // Given
+        Set<String> users = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            users.add("user-" + i);
+        }
+        users.add("usér-ü");
+        EvaluableFlag flag = createFlag(new UserTargetingStrategy(flagId, users));
+
+        // When
+        EvaluableFlag decoded = FeatureFlagCodec.decode(FeatureFlagCodec.encode(flag));
+
+        // Then
+        assertThat(decoded.getStrategy()).isEqualTo(flag.getStrategy());
+    }
+
+    @Test
+    @DisplayName("Should round-trip attribute values with their types")
+    void shouldRoundTripAttributeValuesWithTypes() {
+        // Given
+        Map<String, Set<Object>> rules = new HashMap<>();
+        rules.put("country", Set.of("US", "GH"));
+        rules.put("age", Set.of(18, -1));
+        rules.put("beta", Set.of(true));
+        rules.put("score", Set.of(2.5, 10L));
+        EvaluableFlag flag = createFlag(new AttributeBasedStrategy(flagId, rules));
+
+        // When
+        EvaluableFlag decoded = FeatureFlagCodec.decode(FeatureFlagCodec.encode(flag));
+
+        // Then
+        assertThat(((AttributeBasedStrategy) decoded.getStrategy()).getAttributeRules()).isEqualTo(rules);
+    }
+
+    @Test
+    @DisplayName("Should reject payload with unknown format version")
+    void shouldRejectUnknownFormatVersion() {
+        // Given
+        byte[] bytes = FeatureFlagCodec.encode(createFlag(new PercentageRolloutStrategy(flagId, 10)));
+        bytes[1] = 99;
+
+        // When & Then
+        assertThatThrownBy(() -> FeatureFlagCodec.decode(bytes))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("format version");
+    }
+
+    private EvaluableFlag createFlag(RolloutStrategy strategy) {
+        LocalDateTime now = LocalDateTime.now();
+        return FeatureFlag.reconstruct(flagId, "codec-flag", "Codec test flag", true,
+                Environment.production(), strategy, now, now, 7L).toEvaluable();
+    }
+}
@@ -0,0 +1,147 @@
+package com.markin.togglefox.dataaccess.cache;
+
+import com.markin.togglefox.domain.model.Environment;
+import com.markin.togglefox.domain.model.EvaluableFlag;
+import com.markin.togglefox.domain.model.FeatureFlag;
+import com.markin.togglefox.domain.model.FeatureFlagId;
+import com.markin.togglefox.domain.strategy.PercentageRolloutStrategy;
+import com.markin.togglefox.port.out.CacheStats;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalCacheRepositoryTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    @DisplayName("Should find cached flag by id and by name")
+    void shouldFindCachedFlagByIdAndName() {
+        // Given
+        LocalCacheRepository cache = new LocalCacheRepository(10, Duration.ofSeconds(30), clock::get);
+        EvaluableFlag flag = createFlag("cached-flag");
+
+        // When
+        cache.put(flag.getId(), flag, Duration.ofMinutes(5));
+
+        // Then
+        assertThat(cache.get(flag.getId())).contains(flag);
+        assertThat(cache.get("cached-flag", Environment.development())).contains(flag);
+        assertThat(cache.get("cached-flag", Environment.production())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should expire entries after the local TTL")
+    void shouldExpireEntriesAfterLocalTtl() {
+        // Given
+        LocalCacheRepository cache = new LocalCacheRepository(10, Duration.ofSeconds(30), clock::get);
+        EvaluableFlag flag = createFlag("expiring-flag");
+        cache.put(flag.getId(), flag, Duration.ofMinutes(5));
+
+        // When
+        clock.addAndGet(Duration.ofSeconds(31).toNanos());
+
+        // Then
+        assertThat(cache.get(flag.getId())).isEmpty();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should evict least recently used entries when full")
+    void shouldEvictLeastRecentlyUsedEntriesWhenFull() {
+        // Given
+        LocalCacheRepository cache = new LocalCacheRepository(10, Duration.ofSeconds(30), clock::get);
+        EvaluableFlag hot = createFlag("hot-flag");
+        cache.put(hot.getId(), hot, Duration.ofMinutes(5));
+        for (int i = 0; i < 9; i++) {
+            clock.incrementAndGet();
+            EvaluableFlag flag = createFlag("cold-flag-" + i);
+            cache.put(flag.getId(), flag, Duration.ofMinutes(5));
+        }
+        clock.incrementAndGet();
+        cache.get(hot.getId());
+
+        // When
+        EvaluableFlag overflow = createFlag("overflow-flag");
+        cache.put(overflow.getId(), overflow, Duration.ofMinutes(5));
+
+        // Then
+        assertThat(cache.size()).isLessThanOrEqualTo(10);
+        assertThat(cache.get(hot.getId())).contains(hot);
+        assertThat(cache.get(overflow.getId())).contains(overflow);
+        assertThat(cache.get("cold-flag-0", Environment.development())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should drop name lookup when flag is evicted")
+    void shouldDropNameLookupWhenFlagIsEvicted() {
+        // Given
+        LocalCacheRepository cache = new LocalCacheRepository(10, Duration.ofSeconds(30), clock::get);
+        EvaluableFlag flag = createFlag("evicted-flag");
+        cache.put(flag.getId(), flag, Duration.ofMinutes(5));
+
+        // When
+        cache.evict(flag.getId());
+
+        // Then
+        assertThat(cache.get("evicted-flag", Environment.development())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should not replace a newer flag version with an older one")
+    void shouldNotReplaceNewerVersionWithOlder() {
+        // Given
+        LocalCacheRepository cache = new LocalCacheRepository(10, Duration.ofSeconds(30), clock::get);
+        FeatureFlagId id = FeatureFlagId.generate();
+        EvaluableFlag newer = versionedFlag(id, true, 3);
+        EvaluableFlag older = versionedFlag(id, false, 2);
+        cache.put(id, newer, Duration.ofMinutes(5));
+
+        // When
+        cache.put(id, older, Duration.ofMinutes(5));
+
+        // Then
+        assertThat(cache.get(id)).get().extracting(EvaluableFlag::isEnabled).isEqualTo(true);
+        assertThat(cache.get(id)).get().extracting(EvaluableFlag::getVersion).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("Should count hits, misses and expiry evictions")
+    void shouldCountHitsMissesAndEvictions() {
+        // Given
+        LocalCacheRepository cache = new LocalCacheRepository(10, Duration.ofSeconds(30), clock::get);
+        EvaluableFlag flag = createFlag("counted-flag");
+        cache.put(flag.getId(), flag, Duration.ofMinutes(5));
+
+        // When
+        cache.get("counted-flag", Environment.development());
+        cache.get("unknown-flag", Environment.development());
+        clock.addAndGet(Duration.ofSeconds(31).toNanos());
+        cache.get(flag.getId());
+
+        // Then
+        CacheStats stats = cache.stats();
+        assertThat(stats.hitCount()).isEqualTo(1);
+        assertThat(stats.missCount()).isEqualTo(2);
+        assertThat(stats.totalRequests()).isEqualTo(3);
+        assertThat(stats.evictionCount()).isEqualTo(1);
+        assertThat(stats.totalCachedItems()).isZero();
+    }
+
+    private EvaluableFlag versionedFlag(FeatureFlagId id, boolean enabled, long version) {
+        LocalDateTime now = LocalDateTime.now();
+        return FeatureFlag.reconstruct(id, "versioned-flag", "Test flag", enabled, Environment.development(),
+                new PercentageRolloutStrategy(id, 50), now, now, version).toEvaluable();
+    }
+
+    private EvaluableFlag createFlag(String name) {
+        FeatureFlagId id = FeatureFlagId.generate();
+        return FeatureFlag.create(id, name, "Test flag", Environment.development(),
+                new PercentageRolloutStrategy(id, 50)).toEvaluable();
+    }
+}
@@ -1,6 +1,7 @@
 package com.markin.togglefox.dto.command;
 
 import com.markin.togglefox.domain.model.EvaluationContext;
+import com.markin.togglefox.domain.model.EvaluationReason;
 import com.markin.togglefox.domain.model.FeatureFlagId;
 import com.markin.togglefox.domain.model.FlagEvaluationResult;
 import com.markin.togglefox.domain.strategy.RolloutStrategy;
@@ -22,9 +23,9 @@ public class AttributeBasedStrategy implements RolloutStrategy {
     }
 
     @Override
-    public FlagEvaluationResult evaluate(EvaluationContext context) {
+    public FlagEvaluationResult evaluate(EvaluationContext context, boolean includeReasons) {
         if (attributeRules.isEmpty()) {
-            return FlagEvaluationResult.disabled(flagId, "No attribute rules configured");
+            return FlagEvaluationResult.disabled(flagId, EvaluationReason.NO_RULES);
         }
 
         List<String> matchedRules = new ArrayList<>();
@@ -53,8 +54,8 @@ public class AttributeBasedStrategy implements RolloutStrategy {
                 : "Some attribute rules failed: " + failedRules;
 
         return allRulesMatched
-                ? FlagEvaluationResult.enabled(flagId, reason)
-                : FlagEvaluationResult.disabled(flagId, reason);
+                ? FlagEvaluationResult.enabled(flagId, EvaluationReason.RULES_MATCHED, reason)
+                : FlagEvaluationResult.disabled(flagId, EvaluationReason.RULES_NOT_MATCHED, reason);
     }
 
     @Override
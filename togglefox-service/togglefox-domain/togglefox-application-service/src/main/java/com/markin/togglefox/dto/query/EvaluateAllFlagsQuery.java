@@ -0,0 +1,36 @@
+package com.markin.togglefox.dto.query;
+
+import java.util.Map;
+import java.util.Objects;
+
+public class EvaluateAllFlagsQuery {
+    private final String environment;
+    private final String userId;
+    private final Map<String, Object> attributes;
+
+    public EvaluateAllFlagsQuery(String environment, String userId, Map<String, Object> attributes) {
+        this.environment = Objects.requireNonNull(environment, "Environment cannot be null");
+        this.userId = userId;
+        this.attributes = attributes;
+    }
+
+    public String getEnvironment() {
+        return environment;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public Map<String, Object> getAttributes() {
+        return attributes;
+    }
+
+    @Override
+    public String toString() {
+        return "EvaluateAllFlagsQuery{" +
+                "environment='" + environment + '\'' +
+                ", userId='" + userId + '\'' +
+                '}';
+    }
+}
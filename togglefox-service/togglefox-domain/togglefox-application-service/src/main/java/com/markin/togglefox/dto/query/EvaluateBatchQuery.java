@@ -0,0 +1,40 @@
+package com.markin.togglefox.dto.query;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+
+public class EvaluateBatchQuery {
+    private final String environment;
+    private final List<String> flagNames;
+    private final Iterator<EvaluationSubject> subjects;
+
+    /**
+     * @param subjects users to evaluate; consumed lazily so the input never has to be fully buffered
+     */
+    public EvaluateBatchQuery(String environment, List<String> flagNames, Iterator<EvaluationSubject> subjects) {
+        this.environment = Objects.requireNonNull(environment, "Environment cannot be null");
+        this.flagNames = List.copyOf(Objects.requireNonNull(flagNames, "Flag names cannot be null"));
+        this.subjects = Objects.requireNonNull(subjects, "Subjects cannot be null");
+    }
+
+    public String getEnvironment() {
+        return environment;
+    }
+
+    public List<String> getFlagNames() {
+        return flagNames;
+    }
+
+    public Iterator<EvaluationSubject> getSubjects() {
+        return subjects;
+    }
+
+    @Override
+    public String toString() {
+        return "EvaluateBatchQuery{" +
+                "environment='" + environment + '\'' +
+                ", flagNames=" + flagNames +
+                '}';
+    }
+}
@@ -0,0 +1,16 @@
+package com.markin.togglefox.dto.query;
+
+import java.util.Map;
+
+/**
+ * A single user (and their attributes) to evaluate flags for in a batch
+ */
+public record EvaluationSubject(
+        String userId,
+        Map<String, Object> attributes
+) {
+
+    public EvaluationSubject {
+        attributes = attributes != null ? attributes : Map.of();
+    }
+}
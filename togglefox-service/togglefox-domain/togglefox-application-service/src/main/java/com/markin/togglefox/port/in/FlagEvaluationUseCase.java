@@ -2,7 +2,13 @@ package com.markin.togglefox.port.in;
 
 import com.markin.togglefox.domain.model.EvaluationContext;
 import com.markin.togglefox.domain.model.FlagEvaluationResult;
+import com.markin.togglefox.dto.query.EvaluateAllFlagsQuery;
+import com.markin.togglefox.dto.query.EvaluateBatchQuery;
 import com.markin.togglefox.dto.query.EvaluateFlagQuery;
+import com.markin.togglefox.dto.query.EvaluationSubject;
+
+import java.util.Map;
+import java.util.function.BiConsumer;
 
 public interface FlagEvaluationUseCase {
     /**
@@ -10,5 +16,19 @@ public interface FlagEvaluationUseCase {
      */
     FlagEvaluationResult evaluateFlag(EvaluateFlagQuery query);
 
+    /**
+     * Evaluate every enabled flag in an environment for one context.
+     * Results are keyed by flag name; disabled flags are omitted.
+     * Results carry reason codes only, without rendered detail.
+     */
+    Map<String, FlagEvaluationResult> evaluateAllFlags(EvaluateAllFlagsQuery query);
+
+    /**
+     * Evaluate a set of flags for a stream of users.
+     * Users are evaluated in parallel chunks and handed to the sink in input order,
+     * together with their results keyed by flag name. Results carry reason codes only.
+     */
+    void evaluateBatch(EvaluateBatchQuery query,
+                       BiConsumer<EvaluationSubject, Map<String, FlagEvaluationResult>> sink);
 
 }
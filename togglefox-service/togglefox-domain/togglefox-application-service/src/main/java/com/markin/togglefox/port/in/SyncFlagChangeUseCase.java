@@ -0,0 +1,11 @@
+package com.markin.togglefox.port.in;
+
+import com.markin.togglefox.port.out.FlagChangeNotice;
+
+public interface SyncFlagChangeUseCase {
+
+    /**
+     * Refresh this node's local copies of a flag that was changed on another node
+     */
+    void handleFlagChange(FlagChangeNotice notice);
+}
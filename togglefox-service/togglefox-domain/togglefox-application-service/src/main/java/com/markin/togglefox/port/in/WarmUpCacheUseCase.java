@@ -0,0 +1,11 @@
+package com.markin.togglefox.port.in;
+
+public interface WarmUpCacheUseCase {
+
+    /**
+     * Load every flag into the snapshots and cache ahead of traffic
+     *
+     * @return the number of flags loaded
+     */
+    int warmUp();
+}
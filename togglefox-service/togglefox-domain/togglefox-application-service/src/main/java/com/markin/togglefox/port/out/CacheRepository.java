@@ -1,25 +1,47 @@
 package com.markin.togglefox.port.out;
 
 import com.markin.togglefox.domain.model.Environment;
-import com.markin.togglefox.domain.model.FeatureFlag;
+import com.markin.togglefox.domain.model.EvaluableFlag;
 import com.markin.togglefox.domain.model.FeatureFlagId;
 import com.markin.togglefox.domain.model.FlagEvaluationResult;
 
 import java.time.Duration;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+/**
+ * Cache of flags for evaluation. Entries are immutable {@link EvaluableFlag}s, so a cached
+ * instance is handed to every reader as is.
+ */
 public interface CacheRepository {
 
     /**
      * Cache a feature flag
      */
-    void put(FeatureFlagId id, FeatureFlag featureFlag, Duration ttl);
+    void put(FeatureFlagId id, EvaluableFlag featureFlag, Duration ttl);
 
     /**
      * Get cached feature flag
      */
-    Optional<FeatureFlag> get(FeatureFlagId id);
+    Optional<EvaluableFlag> get(FeatureFlagId id);
+
+    /**
+     * Get cached feature flag by name and environment
+     */
+    Optional<EvaluableFlag> get(String flagName, Environment environment);
+
+    /**
+     * Get cached feature flags by name within one environment.
+     * Names that are not cached are absent from the result.
+     */
+    Map<String, EvaluableFlag> getAll(Collection<String> flagNames, Environment environment);
+
+    /**
+     * Cache several feature flags at once
+     */
+    void putAll(Collection<EvaluableFlag> featureFlags, Duration ttl);
 
     /**
      * Remove from cache
@@ -30,4 +52,9 @@ public interface CacheRepository {
      * Clear all cache
      */
     void clear();
+
+    /**
+     * Snapshot of the hit, miss, eviction and load counters since startup
+     */
+    CacheStats stats();
 }
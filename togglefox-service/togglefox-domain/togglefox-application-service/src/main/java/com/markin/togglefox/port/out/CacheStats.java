@@ -6,10 +6,30 @@ public record CacheStats(
         long totalRequests,
         double hitRatio,
         long evictionCount,
-        long totalCachedItems
+        long totalCachedItems,
+        long loadCount,
+        long totalLoadTimeNanos
 ) {
     public static CacheStats empty() {
-        return new CacheStats(0, 0, 0, 0.0, 0, 0);
+        return new CacheStats(0, 0, 0, 0.0, 0, 0, 0, 0);
+    }
+
+    /**
+     * Build a snapshot from raw counter values, deriving the totals and hit ratio
+     */
+    public static CacheStats of(long hitCount, long missCount, long evictionCount, long totalCachedItems,
+                                long loadCount, long totalLoadTimeNanos) {
+        long totalRequests = hitCount + missCount;
+        return new CacheStats(
+                hitCount,
+                missCount,
+                totalRequests,
+                calculateHitRatio(hitCount, totalRequests),
+                evictionCount,
+                totalCachedItems,
+                loadCount,
+                totalLoadTimeNanos
+        );
     }
 
     public CacheStats withHit() {
@@ -19,7 +39,9 @@ public record CacheStats(
                 totalRequests + 1,
                 calculateHitRatio(hitCount + 1, totalRequests + 1),
                 evictionCount,
-                totalCachedItems
+                totalCachedItems,
+                loadCount,
+                totalLoadTimeNanos
         );
     }
 
@@ -30,10 +52,16 @@ public record CacheStats(
                 totalRequests + 1,
                 calculateHitRatio(hitCount, totalRequests + 1),
                 evictionCount,
-                totalCachedItems
+                totalCachedItems,
+                loadCount,
+                totalLoadTimeNanos
         );
     }
 
+    public double averageLoadTimeNanos() {
+        return loadCount > 0 ? (double) totalLoadTimeNanos / loadCount : 0.0;
+    }
+
     private static double calculateHitRatio(long hits, long total) {
         return total > 0 ? (double) hits / total : 0.0;
     }
@@ -0,0 +1,35 @@
+package com.markin.togglefox.port.out;
+
+import com.markin.togglefox.domain.model.Environment;
+import com.markin.togglefox.domain.model.EvaluableFlag;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+/**
+ * Shared cache of whole environments, so all flags of an environment can be read at once.
+ * Failures are treated as cache misses.
+ */
+public interface EnvironmentCacheRepository {
+
+    /**
+     * Current version of the cached environment, without fetching its flags
+     */
+    OptionalLong version(Environment environment);
+
+    /**
+     * Fetch every cached flag of an environment
+     */
+    Optional<EnvironmentFlags> fetch(Environment environment);
+
+    /**
+     * Cache a complete environment, unless it is already cached
+     */
+    void storeIfAbsent(Environment environment, List<EvaluableFlag> flags);
+
+    /**
+     * Update one flag inside its cached environment, if that environment is cached
+     */
+    void update(EvaluableFlag flag);
+}
@@ -0,0 +1,23 @@
+package com.markin.togglefox.port.out;
+
+import com.markin.togglefox.domain.model.Environment;
+import com.markin.togglefox.domain.model.EvaluableFlag;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Every flag of one environment as cached together, with the version of that cached copy.
+ * The version changes whenever any flag in the environment changes.
+ */
+public record EnvironmentFlags(
+        Environment environment,
+        long version,
+        List<EvaluableFlag> flags
+) {
+
+    public EnvironmentFlags {
+        Objects.requireNonNull(environment, "Environment cannot be null");
+        flags = List.copyOf(flags);
+    }
+}
@@ -0,0 +1,29 @@
+package com.markin.togglefox.port.out;
+
+import com.markin.togglefox.domain.model.Environment;
+import com.markin.togglefox.domain.model.FeatureFlag;
+import com.markin.togglefox.domain.model.FeatureFlagId;
+
+import java.util.Objects;
+
+/**
+ * Notice that a flag has changed, broadcast to every node so it can refresh its local copies.
+ * The version is the flag's persisted version after the change.
+ */
+public record FlagChangeNotice(
+        FeatureFlagId flagId,
+        String flagName,
+        Environment environment,
+        long version
+) {
+
+    public FlagChangeNotice {
+        Objects.requireNonNull(flagId, "Flag ID cannot be null");
+        Objects.requireNonNull(flagName, "Flag name cannot be null");
+        Objects.requireNonNull(environment, "Environment cannot be null");
+    }
+
+    public static FlagChangeNotice of(FeatureFlag flag) {
+        return new FlagChangeNotice(flag.getId(), flag.getName(), flag.getEnvironment(), flag.getVersion());
+    }
+}
@@ -0,0 +1,9 @@
+package com.markin.togglefox.port.out;
+
+public interface FlagChangeNotifier {
+
+    /**
+     * Tell every other node that a flag has changed
+     */
+    void flagChanged(FlagChangeNotice notice);
+}
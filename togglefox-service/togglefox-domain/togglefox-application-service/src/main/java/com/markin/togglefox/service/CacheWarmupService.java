@@ -0,0 +1,51 @@
+package com.markin.togglefox.service;
+
+import com.markin.togglefox.domain.model.Environment;
+import com.markin.togglefox.domain.model.EvaluableFlag;
+import com.markin.togglefox.domain.model.FeatureFlag;
+import com.markin.togglefox.port.in.WarmUpCacheUseCase;
+import com.markin.togglefox.port.out.FeatureFlagRepository;
+import com.markin.togglefox.snapshot.FlagSnapshotRegistry;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Bulk-loads all flags with one repository query, so a freshly started node
+ * serves its first requests from memory instead of the database.
+ */
+public class CacheWarmupService implements WarmUpCacheUseCase {
+
+    private final FeatureFlagRepository repository;
+    private final FlagSnapshotRegistry snapshots;
+    private final FlagLoader flagLoader;
+
+    public CacheWarmupService(FeatureFlagRepository repository, FlagSnapshotRegistry snapshots,
+                              FlagLoader flagLoader) {
+        this.repository = Objects.requireNonNull(repository, "Repository cannot be null");
+        this.snapshots = Objects.requireNonNull(snapshots, "Snapshot registry cannot be null");
+        this.flagLoader = Objects.requireNonNull(flagLoader, "Flag loader cannot be null");
+    }
+
+    @Override
+    public int warmUp() {
+        List<FeatureFlag> loaded = repository.findAll();
+
+        // Snapshots and cache share one evaluable instance per flag
+        List<EvaluableFlag> flags = new ArrayList<>(loaded.size());
+        Map<Environment, List<EvaluableFlag>> flagsByEnvironment = new HashMap<>();
+        for (FeatureFlag flag : loaded) {
+            EvaluableFlag evaluable = flag.toEvaluable();
+            flags.add(evaluable);
+            flagsByEnvironment.computeIfAbsent(flag.getEnvironment(), environment -> new ArrayList<>()).add(evaluable);
+        }
+        flagsByEnvironment.forEach(snapshots::install);
+
+        flagLoader.primeAll(flags);
+
+        return flags.size();
+    }
+}
@@ -2,16 +2,17 @@ package com.markin.togglefox.service;
 
 import com.markin.togglefox.domain.event.DomainEvent;
 import com.markin.togglefox.domain.model.Environment;
-import com.markin.togglefox.domain.strategy.AttributeBasedStrategy;
-import com.markin.togglefox.domain.strategy.PercentageRolloutStrategy;
 import com.markin.togglefox.domain.strategy.RolloutStrategy;
-import com.markin.togglefox.domain.strategy.UserTargetingStrategy;
+import com.markin.togglefox.domain.util.BucketingAlgorithm;
 import com.markin.togglefox.dto.command.CreateFlagCommand;
 import com.markin.togglefox.domain.model.FeatureFlag;
 import com.markin.togglefox.domain.model.FeatureFlagId;
 import com.markin.togglefox.port.in.CreateFlagUseCase;
 import com.markin.togglefox.port.out.EventPublisher;
 import com.markin.togglefox.port.out.FeatureFlagRepository;
+import com.markin.togglefox.port.out.FlagChangeNotice;
+import com.markin.togglefox.port.out.FlagChangeNotifier;
+import com.markin.togglefox.snapshot.FlagSnapshotRegistry;
 
 import java.util.*;
 
@@ -19,10 +20,18 @@ public class CreateFlagService implements CreateFlagUseCase {
 
     private final FeatureFlagRepository repository;
     private final EventPublisher eventPublisher;
+    private final FlagSnapshotRegistry snapshots;
+    private final NegativeFlagCache negativeCache;
+    private final FlagChangeNotifier changeNotifier;
 
-    public CreateFlagService(FeatureFlagRepository repository, EventPublisher eventPublisher) {
+    public CreateFlagService(FeatureFlagRepository repository, EventPublisher eventPublisher,
+                             FlagSnapshotRegistry snapshots, NegativeFlagCache negativeCache,
+                             FlagChangeNotifier changeNotifier) {
         this.repository = repository;
         this.eventPublisher = eventPublisher;
+        this.snapshots = snapshots;
+        this.negativeCache = negativeCache;
+        this.changeNotifier = changeNotifier;
     }
 
     @Override
@@ -38,7 +47,8 @@ public class CreateFlagService implements CreateFlagUseCase {
 
         // Generate ID and create strategy
         FeatureFlagId flagId = FeatureFlagId.generate();
-        RolloutStrategy strategy = createStrategy(flagId, command.getStrategyType(), command.getStrategyConfig());
+        RolloutStrategy strategy = RolloutStrategyFactory.create(flagId, command.getStrategyType(), command.getStrategyConfig(),
+                BucketingAlgorithm.MURMUR3);
 
         // Create the flag
         FeatureFlag flag = FeatureFlag.create(
@@ -51,44 +61,15 @@ public class CreateFlagService implements CreateFlagUseCase {
 
         // Save and publish events
         FeatureFlag savedFlag = repository.save(flag);
+        snapshots.publish(savedFlag);
+        negativeCache.invalidate(savedFlag.getName(), environment); // Name may have been cached as missing
+        changeNotifier.flagChanged(FlagChangeNotice.of(savedFlag));
         publishDomainEvents(savedFlag);
 
         return savedFlag;
     }
 
 
-    private RolloutStrategy createStrategy(FeatureFlagId flagId, String strategyType, Map<String, Object> config) {
-        switch (strategyType.toUpperCase()) {
-            case "PERCENTAGE":
-                Integer percentage = (Integer) config.get("percentage");
-                if (percentage == null) {
-                    throw new IllegalArgumentException("Percentage strategy requires 'percentage' configuration");
-                }
-                return new PercentageRolloutStrategy(flagId, percentage);
-
-            case "USER_TARGETING":
-                @SuppressWarnings("unchecked")
-                List<String> userList = (List<String>) config.get("users");
-                if (userList == null) {
-                    throw new IllegalArgumentException("User targeting strategy requires 'users' configuration");
-                }
-                return new UserTargetingStrategy(flagId, new HashSet<>(userList));
-
-            case "ATTRIBUTE_BASED":
-                @SuppressWarnings("unchecked")
-                Map<String, List<Object>> rules = (Map<String, List<Object>>) config.get("rules");
-                if (rules == null) {
-                    throw new IllegalArgumentException("Attribute-based strategy requires 'rules' configuration");
-                }
-                Map<String, Set<Object>> attributeRules = new HashMap<>();
-                rules.forEach((key, values) -> attributeRules.put(key, new HashSet<>(values)));
-                return new AttributeBasedStrategy(flagId, attributeRules);
-
-            default:
-                throw new IllegalArgumentException("Unknown strategy type: " + strategyType);
-        }
-    }
-
     private void publishDomainEvents(FeatureFlag flag) {
         List<DomainEvent> events = flag.getAndClearDomainEvents();
         events.forEach(eventPublisher::publish);
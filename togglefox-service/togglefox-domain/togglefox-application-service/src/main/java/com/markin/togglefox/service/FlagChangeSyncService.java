@@ -0,0 +1,50 @@
+package com.markin.togglefox.service;
+
+import com.markin.togglefox.domain.model.FeatureFlag;
+import com.markin.togglefox.port.in.SyncFlagChangeUseCase;
+import com.markin.togglefox.port.out.CacheRepository;
+import com.markin.togglefox.port.out.FeatureFlagRepository;
+import com.markin.togglefox.port.out.FlagChangeNotice;
+import com.markin.togglefox.snapshot.FlagSnapshotRegistry;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Applies flag changes made on other nodes to this node's in-process state:
+ * the local cache tier, the negative cache and the environment snapshot. The shared cache was
+ * already invalidated by the node that made the change.
+ */
+public class FlagChangeSyncService implements SyncFlagChangeUseCase {
+
+    private final FeatureFlagRepository repository;
+    private final CacheRepository localCache;
+    private final NegativeFlagCache negativeCache;
+    private final FlagSnapshotRegistry snapshots;
+
+    public FlagChangeSyncService(FeatureFlagRepository repository, CacheRepository localCache,
+                                 NegativeFlagCache negativeCache, FlagSnapshotRegistry snapshots) {
+        this.repository = Objects.requireNonNull(repository, "Repository cannot be null");
+        this.localCache = Objects.requireNonNull(localCache, "Local cache cannot be null");
+        this.negativeCache = Objects.requireNonNull(negativeCache, "Negative cache cannot be null");
+        this.snapshots = Objects.requireNonNull(snapshots, "Snapshot registry cannot be null");
+    }
+
+    @Override
+    public void handleFlagChange(FlagChangeNotice notice) {
+        localCache.evict(notice.flagId());
+        negativeCache.invalidate(notice.flagName(), notice.environment());
+
+        // Environments that are not loaded yet will read the change on first use
+        if (!snapshots.isLoaded(notice.environment())) {
+            return;
+        }
+
+        Optional<FeatureFlag> flag = repository.findById(notice.flagId());
+        if (flag.isPresent()) {
+            snapshots.apply(flag.get());
+        } else {
+            snapshots.remove(notice.flagId(), notice.environment());
+        }
+    }
+}
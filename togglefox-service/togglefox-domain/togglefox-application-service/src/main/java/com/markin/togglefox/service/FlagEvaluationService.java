@@ -1,67 +1,162 @@
 package com.markin.togglefox.service;
 
-import com.markin.togglefox.domain.exception.FlagNotFoundException;
 import com.markin.togglefox.domain.model.*;
+import com.markin.togglefox.dto.query.EvaluateAllFlagsQuery;
+import com.markin.togglefox.dto.query.EvaluateBatchQuery;
 import com.markin.togglefox.dto.query.EvaluateFlagQuery;
+import com.markin.togglefox.dto.query.EvaluationSubject;
 import com.markin.togglefox.port.in.FlagEvaluationUseCase;
-import com.markin.togglefox.port.out.CacheRepository;
-import com.markin.togglefox.port.out.FeatureFlagRepository;
+import com.markin.togglefox.snapshot.EnvironmentSnapshot;
+import com.markin.togglefox.snapshot.FlagSnapshotRegistry;
 
-import java.time.Duration;
-import java.util.Objects;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
 
 public class FlagEvaluationService implements FlagEvaluationUseCase {
 
-    private final FeatureFlagRepository repository;
-    private final CacheRepository cache;
+    private static final int BATCH_CHUNK_SIZE = 1024;
 
-    public FlagEvaluationService(FeatureFlagRepository repository, CacheRepository cache) {
-        this.repository = repository;
-        this.cache = cache;
+    private final FlagSnapshotRegistry snapshots;
+    private final FlagLoader flagLoader;
+    private final ForkJoinPool batchPool;
+    private final boolean includeReasons;
+
+    /**
+     * @param includeReasons render reason details for single-flag evaluations; without them results
+     *                       only carry a reason code. Multi-flag evaluations never render details.
+     */
+    public FlagEvaluationService(FlagSnapshotRegistry snapshots, FlagLoader flagLoader,
+                                 ForkJoinPool batchPool, boolean includeReasons) {
+        this.snapshots = snapshots;
+        this.flagLoader = flagLoader;
+        this.batchPool = batchPool;
+        this.includeReasons = includeReasons;
     }
 
     @Override
     public FlagEvaluationResult evaluateFlag(EvaluateFlagQuery query) {
         Environment environment = Environment.of(query.getEnvironment());
 
-        // Try cache first
-        Optional<FeatureFlag> cachedFlag = findFlagInCache(query.getFlagName(), environment);
-        FeatureFlag flag = cachedFlag.orElseGet(() -> findAndCacheFlag(query.getFlagName(), environment));
+        // Serve from the in-memory snapshot when the environment is available
+        Optional<EnvironmentSnapshot> snapshot = findSnapshot(environment);
+        if (snapshot.isPresent()) {
+            EvaluableFlag flag = snapshot.get().get(query.getFlagName());
+            if (flag == null) {
+                return FlagEvaluationResult.notFound();
+            }
+            return flag.evaluate(buildContext(query), includeReasons);
+        }
 
-        if (flag == null) {
-            return FlagEvaluationResult.disabled(
-                    FeatureFlagId.of("unknown"),
-                    "Feature flag not found: " + query.getFlagName()
-            );
+        // Snapshot could not be loaded - fall back to cache and repository
+        Optional<EvaluableFlag> flag = flagLoader.find(query.getFlagName(), environment);
+        if (flag.isEmpty()) {
+            return FlagEvaluationResult.notFound();
         }
 
-        // Build evaluation context
-        EvaluationContext context = query.getUserId() != null
-                ? EvaluationContext.forUserWithAttributes(query.getUserId(), query.getAttributes())
-                : EvaluationContext.anonymous();
+        return flag.get().evaluate(buildContext(query), includeReasons);
+    }
+
+    @Override
+    public Map<String, FlagEvaluationResult> evaluateAllFlags(EvaluateAllFlagsQuery query) {
+        Environment environment = Environment.of(query.getEnvironment());
+        EvaluationContext context = buildContext(query.getUserId(), query.getAttributes());
 
-        return flag.evaluate(context);
+        // One snapshot read and one context for every flag in the environment. A failed snapshot load
+        // backs off, so during an outage requests fail fast with SnapshotUnavailableException (503)
+        // instead of each loading the environment again.
+        EnvironmentSnapshot snapshot = snapshots.snapshotFor(environment);
+        Map<String, FlagEvaluationResult> results = new HashMap<>();
+        for (EvaluableFlag flag : snapshot.getFlags()) {
+            if (flag.isEnabled()) {
+                results.put(flag.getName(), flag.evaluate(context, false));
+            }
+        }
+        return results;
     }
 
-    private Optional<FeatureFlag> findFlagInCache(String flagName, Environment environment) {
-        return Optional.empty(); // Simplified for now
+    @Override
+    public void evaluateBatch(EvaluateBatchQuery query,
+                              BiConsumer<EvaluationSubject, Map<String, FlagEvaluationResult>> sink) {
+        Environment environment = Environment.of(query.getEnvironment());
+        List<String> flagNames = query.getFlagNames();
+        // Without a snapshot, fetch just the requested flags with one bulk cache read
+        EnvironmentSnapshot snapshot = findSnapshot(environment)
+                .orElseGet(() -> EnvironmentSnapshot.of(environment,
+                        flagLoader.findAll(flagNames, environment).values()));
+
+        // Resolve the requested flags once for the whole batch
+        EvaluableFlag[] entries = new EvaluableFlag[flagNames.size()];
+        for (int i = 0; i < entries.length; i++) {
+            entries[i] = snapshot.get(flagNames.get(i));
+        }
 
-        /** TODO: Implement cache lookup logic
-         * Example:
-         * String cacheKey = flagName + ":" + environment.getName();
-         * return cache.get(cacheKey, FeatureFlag.class);
-         */
+        // Pull users in bounded chunks so neither input nor output is fully buffered
+        Iterator<EvaluationSubject> subjects = query.getSubjects();
+        List<EvaluationSubject> chunk = new ArrayList<>(BATCH_CHUNK_SIZE);
+        while (subjects.hasNext()) {
+            chunk.add(subjects.next());
+            if (chunk.size() == BATCH_CHUNK_SIZE) {
+                evaluateChunk(chunk, flagNames, entries, sink);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            evaluateChunk(chunk, flagNames, entries, sink);
+        }
+    }
+
+    private void evaluateChunk(List<EvaluationSubject> chunk, List<String> flagNames, EvaluableFlag[] entries,
+                               BiConsumer<EvaluationSubject, Map<String, FlagEvaluationResult>> sink) {
+        // Parallel streams run on the pool that submits them, keeping batch work off the common pool
+        List<Map<String, FlagEvaluationResult>> results = batchPool.submit(() -> chunk.parallelStream()
+                .map(subject -> evaluateSubject(subject, flagNames, entries))
+                .toList()
+        ).join();
+
+        for (int i = 0; i < chunk.size(); i++) {
+            sink.accept(chunk.get(i), results.get(i));
+        }
     }
 
-    private FeatureFlag findAndCacheFlag(String flagName, Environment environment) {
-        Optional<FeatureFlag> flag = repository.findByNameAndEnvironment(flagName, environment);
+    private Map<String, FlagEvaluationResult> evaluateSubject(EvaluationSubject subject, List<String> flagNames,
+                                                              EvaluableFlag[] entries) {
+        EvaluationContext context = buildContext(subject.userId(), subject.attributes());
+        Map<String, FlagEvaluationResult> results = new LinkedHashMap<>(entries.length * 2);
+        for (int i = 0; i < entries.length; i++) {
+            results.put(flagNames.get(i), entries[i] != null
+                    ? entries[i].evaluate(context, false)
+                    : FlagEvaluationResult.notFound());
+        }
+        return results;
+    }
 
-        if (flag.isPresent()) {
-            // Cache for 5 minutes
-            cache.put(flag.get().getId(), flag.get(), Duration.ofMinutes(5));
+    private Optional<EnvironmentSnapshot> findSnapshot(Environment environment) {
+        try {
+            return Optional.of(snapshots.snapshotFor(environment));
+        } catch (RuntimeException e) {
+            // Loading failed (e.g. database unavailable); the caller uses the per-flag path instead
+            return Optional.empty();
         }
+    }
+
+    private EvaluationContext buildContext(EvaluateFlagQuery query) {
+        return buildContext(query.getUserId(), query.getAttributes());
+    }
 
-        return flag.orElse(null);
+    /**
+     * The context takes the attributes over without copying, and serves every flag evaluated for this user
+     */
+    private EvaluationContext buildContext(String userId, Map<String, Object> attributes) {
+        return userId != null
+                ? EvaluationContext.forUserWithAttributes(userId, attributes)
+                : EvaluationContext.anonymous();
     }
+
 }
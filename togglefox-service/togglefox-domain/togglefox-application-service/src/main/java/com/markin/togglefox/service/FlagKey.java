@@ -0,0 +1,9 @@
+package com.markin.togglefox.service;
+
+import com.markin.togglefox.domain.model.Environment;
+
+/**
+ * Lookup key of a flag within an environment
+ */
+record FlagKey(String flagName, Environment environment) {
+}
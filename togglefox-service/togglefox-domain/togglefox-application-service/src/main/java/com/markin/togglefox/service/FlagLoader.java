@@ -0,0 +1,242 @@
+package com.markin.togglefox.service;
+
+import com.markin.togglefox.domain.model.Environment;
+import com.markin.togglefox.domain.model.EvaluableFlag;
+import com.markin.togglefox.domain.model.FeatureFlag;
+import com.markin.togglefox.port.out.CacheRepository;
+import com.markin.togglefox.port.out.FeatureFlagRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache-aside flag lookup by name and environment.
+ *
+ * Concurrent misses for the same flag share a single repository load: the first caller
+ * loads while the others wait on its future. Cached flags are fresh for {@code freshFor};
+ * after that they are served stale for up to {@code staleFor} while one background
+ * refresh reloads them. Flags that do not exist are remembered in a {@link NegativeFlagCache}.
+ * Flags are returned as cached {@link EvaluableFlag}s, shared by every caller.
+ *
+ * Reads are counted per flag. {@link #refreshHotEntries()} reloads flags that were read at least
+ * {@code hotThreshold} times since their last load once they are within {@code refreshAhead} of going
+ * stale, so hot flags are reloaded before any request sees them stale. Cold flags are left to expire.
+ */
+public class FlagLoader {
+
+    private final FeatureFlagRepository repository;
+    private final CacheRepository cache;
+    private final NegativeFlagCache negativeCache;
+    private final Executor refreshExecutor;
+    private final long freshForNanos;
+    private final long cacheTtlNanos;
+    private final Duration cacheTtl;
+    private final long refreshAheadNanos;
+    private final int hotThreshold;
+
+    private final Map<FlagKey, CompletableFuture<Optional<EvaluableFlag>>> inFlight = new ConcurrentHashMap<>();
+    private final Map<FlagKey, Long> refreshAt = new ConcurrentHashMap<>();
+    private final Map<FlagKey, LongAdder> reads = new ConcurrentHashMap<>();
+
+    public FlagLoader(FeatureFlagRepository repository, CacheRepository cache, NegativeFlagCache negativeCache,
+                      Executor refreshExecutor, Duration freshFor, Duration staleFor,
+                      Duration refreshAhead, int hotThreshold) {
+        this.repository = Objects.requireNonNull(repository, "Repository cannot be null");
+        this.cache = Objects.requireNonNull(cache, "Cache cannot be null");
+        this.negativeCache = Objects.requireNonNull(negativeCache, "Negative cache cannot be null");
+        this.refreshExecutor = Objects.requireNonNull(refreshExecutor, "Refresh executor cannot be null");
+        this.freshForNanos = freshFor.toNanos();
+        // Cached entries outlive their freshness by the stale window
+        this.cacheTtl = freshFor.plus(staleFor);
+        this.cacheTtlNanos = cacheTtl.toNanos();
+        this.refreshAheadNanos = refreshAhead.toNanos();
+        this.hotThreshold = hotThreshold;
+    }
+
+    /**
+     * Find a flag, from the cache when possible
+     */
+    public Optional<EvaluableFlag> find(String flagName, Environment environment) {
+        if (negativeCache.isMissing(flagName, environment)) {
+            return Optional.empty();
+        }
+
+        FlagKey key = new FlagKey(flagName, environment);
+        recordRead(key);
+
+        Optional<EvaluableFlag> cached = cache.get(flagName, environment);
+        if (cached.isPresent()) {
+            if (isStale(key)) {
+                refreshInBackground(key);
+            }
+            return cached;
+        }
+
+        return load(key);
+    }
+
+    /**
+     * Find several flags of one environment with a single bulk cache read.
+     * Flags missing from the cache are loaded one by one; flags that do not exist are absent from the result.
+     */
+    public Map<String, EvaluableFlag> findAll(Collection<String> flagNames, Environment environment) {
+        List<String> candidates = new ArrayList<>(flagNames.size());
+        for (String flagName : flagNames) {
+            if (!negativeCache.isMissing(flagName, environment)) {
+                candidates.add(flagName);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return new HashMap<>();
+        }
+
+        Map<String, EvaluableFlag> found = new HashMap<>(cache.getAll(candidates, environment));
+        for (String flagName : candidates) {
+            FlagKey key = new FlagKey(flagName, environment);
+            recordRead(key);
+            if (found.containsKey(flagName)) {
+                if (isStale(key)) {
+                    refreshInBackground(key);
+                }
+            } else {
+                load(key).ifPresent(flag -> found.put(flagName, flag));
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Put a flag that was loaded elsewhere (e.g. after a write) into the cache as fresh
+     */
+    public void prime(FeatureFlag flag) {
+        cache.put(flag.getId(), flag.toEvaluable(), cacheTtl);
+        refreshAt.put(new FlagKey(flag.getName(), flag.getEnvironment()), System.nanoTime() + freshForNanos);
+    }
+
+    /**
+     * Put many flags loaded elsewhere (e.g. during warm-up) into the cache as fresh, in one bulk write
+     */
+    public void primeAll(Collection<EvaluableFlag> flags) {
+        if (flags.isEmpty()) {
+            return;
+        }
+        cache.putAll(flags, cacheTtl);
+        long deadline = System.nanoTime() + freshForNanos;
+        for (EvaluableFlag flag : flags) {
+            refreshAt.put(new FlagKey(flag.getName(), flag.getEnvironment()), deadline);
+        }
+    }
+
+    /**
+     * Reload hot flags that are about to go stale, and forget flags whose cache entry has expired.
+     * Called periodically; the reloads themselves run on the refresh executor.
+     */
+    public void refreshHotEntries() {
+        long now = System.nanoTime();
+        refreshAt.forEach((key, deadline) -> {
+            long untilStale = deadline - now;
+            if (untilStale <= freshForNanos - cacheTtlNanos) {
+                // Past the stale window, so the cache entry is gone; the next read loads it again
+                refreshAt.remove(key, deadline);
+                reads.remove(key);
+            } else if (untilStale <= refreshAheadNanos && readsOf(key) >= hotThreshold) {
+                refreshInBackground(key);
+            }
+        });
+        // Reads of flags this node never loaded itself have no deadline to refresh ahead of
+        reads.keySet().removeIf(key -> !refreshAt.containsKey(key));
+    }
+
+    private void recordRead(FlagKey key) {
+        reads.computeIfAbsent(key, k -> new LongAdder()).increment();
+    }
+
+    private long readsOf(FlagKey key) {
+        LongAdder counter = reads.get(key);
+        return counter != null ? counter.sum() : 0;
+    }
+
+    private boolean isStale(FlagKey key) {
+        Long deadline = refreshAt.get(key);
+        return deadline != null && System.nanoTime() - deadline >= 0;
+    }
+
+    private Optional<EvaluableFlag> load(FlagKey key) {
+        CompletableFuture<Optional<EvaluableFlag>> own = new CompletableFuture<>();
+        CompletableFuture<Optional<EvaluableFlag>> existing = inFlight.putIfAbsent(key, own);
+        if (existing != null) {
+            return await(existing);
+        }
+
+        runLoad(key, own);
+        return await(own);
+    }
+
+    private void refreshInBackground(FlagKey key) {
+        CompletableFuture<Optional<EvaluableFlag>> own = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(key, own) != null) {
+            return; // Already being loaded
+        }
+
+        try {
+            refreshExecutor.execute(() -> runLoad(key, own));
+        } catch (RuntimeException e) {
+            // Rejected; the stale entry keeps being served and a later read retries
+            inFlight.remove(key, own);
+            own.completeExceptionally(e);
+        }
+    }
+
+    private void runLoad(FlagKey key, CompletableFuture<Optional<EvaluableFlag>> future) {
+        try {
+            future.complete(loadAndCache(key));
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    private Optional<EvaluableFlag> loadAndCache(FlagKey key) {
+        Optional<EvaluableFlag> flag = repository.findByNameAndEnvironment(key.flagName(), key.environment())
+                .map(FeatureFlag::toEvaluable);
+
+        if (flag.isPresent()) {
+            cache.put(flag.get().getId(), flag.get(), cacheTtl);
+            refreshAt.put(key, System.nanoTime() + freshForNanos);
+            // Hotness is measured per load, so a flag must stay busy to keep being refreshed ahead
+            LongAdder counter = reads.get(key);
+            if (counter != null) {
+                counter.reset();
+            }
+        } else {
+            refreshAt.remove(key);
+            reads.remove(key);
+            negativeCache.recordMissing(key.flagName(), key.environment());
+        }
+
+        return flag;
+    }
+
+    private Optional<EvaluableFlag> await(CompletableFuture<Optional<EvaluableFlag>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -2,10 +2,9 @@ package com.markin.togglefox.service;
 
 import com.markin.togglefox.domain.event.DomainEvent;
 import com.markin.togglefox.domain.model.FeatureFlagId;
-import com.markin.togglefox.domain.strategy.AttributeBasedStrategy;
 import com.markin.togglefox.domain.strategy.PercentageRolloutStrategy;
 import com.markin.togglefox.domain.strategy.RolloutStrategy;
-import com.markin.togglefox.domain.strategy.UserTargetingStrategy;
+import com.markin.togglefox.domain.util.BucketingAlgorithm;
 import com.markin.togglefox.dto.command.EnableFlagCommand;
 import com.markin.togglefox.domain.model.FeatureFlag;
 import com.markin.togglefox.dto.command.UpdateStrategyCommand;
@@ -13,6 +12,9 @@ import com.markin.togglefox.port.in.ManageFlagUseCase;
 import com.markin.togglefox.port.out.CacheRepository;
 import com.markin.togglefox.port.out.EventPublisher;
 import com.markin.togglefox.port.out.FeatureFlagRepository;
+import com.markin.togglefox.port.out.FlagChangeNotice;
+import com.markin.togglefox.port.out.FlagChangeNotifier;
+import com.markin.togglefox.snapshot.FlagSnapshotRegistry;
 
 import java.util.*;
 
@@ -21,11 +23,24 @@ public class ManageFlagService implements ManageFlagUseCase {
     private final FeatureFlagRepository repository;
     private final CacheRepository cache;
     private final EventPublisher eventPublisher;
-
-    public ManageFlagService(FeatureFlagRepository repository, CacheRepository cache, EventPublisher eventPublisher) {
+    private final FlagSnapshotRegistry snapshots;
+    private final FlagChangeNotifier changeNotifier;
+    private final FlagLoader flagLoader;
+    private final boolean writeThrough;
+
+    /**
+     * @param writeThrough put saved flags straight into the cache instead of evicting them
+     */
+    public ManageFlagService(FeatureFlagRepository repository, CacheRepository cache,
+                             EventPublisher eventPublisher, FlagSnapshotRegistry snapshots,
+                             FlagChangeNotifier changeNotifier, FlagLoader flagLoader, boolean writeThrough) {
         this.repository = repository;
         this.cache = cache;
         this.eventPublisher = eventPublisher;
+        this.snapshots = snapshots;
+        this.changeNotifier = changeNotifier;
+        this.flagLoader = flagLoader;
+        this.writeThrough = writeThrough;
     }
 
     @Override
@@ -35,9 +50,7 @@ public class ManageFlagService implements ManageFlagUseCase {
 
         flag.enable();
 
-        repository.save(flag);
-        cache.evict(flagId); // Invalidate cache
-        publishDomainEvents(flag);
+        saveAndPublish(flag);
     }
 
     @Override
@@ -46,9 +59,7 @@ public class ManageFlagService implements ManageFlagUseCase {
 
         flag.disable();
 
-        repository.save(flag);
-        cache.evict(flagId); // Invalidate cache
-        publishDomainEvents(flag);
+        saveAndPublish(flag);
     }
 
     @Override
@@ -61,12 +72,11 @@ public class ManageFlagService implements ManageFlagUseCase {
         FeatureFlagId flagId = FeatureFlagId.of(command.getFlagId());
         FeatureFlag flag = findFlagOrThrow(flagId);
 
-        RolloutStrategy newStrategy = createStrategy(flagId, command.getStrategyType(), command.getStrategyConfig());
+        RolloutStrategy newStrategy = RolloutStrategyFactory.create(flagId, command.getStrategyType(), command.getStrategyConfig(),
+                currentBucketingAlgorithm(flag));
         flag.updateStrategy(newStrategy);
 
-        repository.save(flag);
-        cache.evict(flagId); // Invalidate cache
-        publishDomainEvents(flag);
+        saveAndPublish(flag);
     }
 
     @Override
@@ -79,36 +89,27 @@ public class ManageFlagService implements ManageFlagUseCase {
                 .orElseThrow(() -> new IllegalArgumentException("Feature flag not found: " + flagId));
     }
 
-    private RolloutStrategy createStrategy(FeatureFlagId flagId, String strategyType, Map<String, Object> config) {
-        switch (strategyType.toUpperCase()) {
-            case "PERCENTAGE":
-                Integer percentage = (Integer) config.get("percentage");
-                if (percentage == null) {
-                    throw new IllegalArgumentException("Percentage strategy requires 'percentage' configuration");
-                }
-                return new PercentageRolloutStrategy(flagId, percentage);
-
-            case "USER_TARGETING":
-                @SuppressWarnings("unchecked")
-                List<String> userList = (List<String>) config.get("users");
-                if (userList == null) {
-                    throw new IllegalArgumentException("User targeting strategy requires 'users' configuration");
-                }
-                return new UserTargetingStrategy(flagId, new HashSet<>(userList));
-
-            case "ATTRIBUTE_BASED":
-                @SuppressWarnings("unchecked")
-                Map<String, List<Object>> rules = (Map<String, List<Object>>) config.get("rules");
-                if (rules == null) {
-                    throw new IllegalArgumentException("Attribute-based strategy requires 'rules' configuration");
-                }
-                Map<String, Set<Object>> attributeRules = new HashMap<>();
-                rules.forEach((key, values) -> attributeRules.put(key, new HashSet<>(values)));
-                return new AttributeBasedStrategy(flagId, attributeRules);
-
-            default:
-                throw new IllegalArgumentException("Unknown strategy type: " + strategyType);
+    /**
+     * Keep the existing bucketing of a percentage flag so updating it does not reshuffle users
+     */
+    private BucketingAlgorithm currentBucketingAlgorithm(FeatureFlag flag) {
+        if (flag.getRolloutStrategy() instanceof PercentageRolloutStrategy percentageStrategy) {
+            return percentageStrategy.getBucketingAlgorithm();
         }
+        return BucketingAlgorithm.MURMUR3;
+    }
+
+    private void saveAndPublish(FeatureFlag flag) {
+        FeatureFlag savedFlag = repository.save(flag);
+        if (writeThrough) {
+            // Every tier keeps the newest version, so a racing older write cannot replace this one
+            flagLoader.prime(savedFlag);
+        } else {
+            cache.evict(flag.getId()); // Invalidate cache
+        }
+        snapshots.publish(savedFlag);
+        changeNotifier.flagChanged(FlagChangeNotice.of(savedFlag)); // Invalidate other nodes
+        publishDomainEvents(flag);
     }
 
     private void publishDomainEvents(FeatureFlag flag) {
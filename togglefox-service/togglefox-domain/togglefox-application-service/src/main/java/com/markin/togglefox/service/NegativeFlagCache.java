@@ -0,0 +1,84 @@
+package com.markin.togglefox.service;
+
+import com.markin.togglefox.domain.model.Environment;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, short-lived record of flag names that do not exist in an environment,
+ * so repeated lookups of unknown flags do not reach the database.
+ *
+ * Once full, new misses are not recorded until a sweep frees expired entries. A sweep walks
+ * the whole map, so at most one runs per quarter of the TTL and a full cache otherwise costs
+ * a size check per miss.
+ */
+public class NegativeFlagCache {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final long sweepIntervalNanos;
+    private final Map<FlagKey, Long> expiresAt = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweepAt = new AtomicLong(System.nanoTime());
+
+    public NegativeFlagCache(int maxSize, Duration ttl) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Max size must be positive");
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = Objects.requireNonNull(ttl, "TTL cannot be null").toNanos();
+        this.sweepIntervalNanos = Math.max(ttlNanos / 4, 1);
+    }
+
+    /**
+     * Whether the flag was recently looked up and not found
+     */
+    public boolean isMissing(String flagName, Environment environment) {
+        FlagKey key = new FlagKey(flagName, environment);
+        Long deadline = expiresAt.get(key);
+        if (deadline == null) {
+            return false;
+        }
+        if (System.nanoTime() - deadline >= 0) {
+            expiresAt.remove(key, deadline);
+            return false;
+        }
+        return true;
+    }
+
+    public void recordMissing(String flagName, Environment environment) {
+        long now = System.nanoTime();
+        if (expiresAt.size() >= maxSize) {
+            if (!claimSweep(now)) {
+                return;
+            }
+            expiresAt.values().removeIf(deadline -> now - deadline >= 0);
+            if (expiresAt.size() >= maxSize) {
+                return;
+            }
+        }
+        expiresAt.put(new FlagKey(flagName, environment), now + ttlNanos);
+    }
+
+    /**
+     * Whether this caller should sweep now; only one caller wins per sweep interval
+     */
+    private boolean claimSweep(long now) {
+        long due = nextSweepAt.get();
+        return now - due >= 0 && nextSweepAt.compareAndSet(due, now + sweepIntervalNanos);
+    }
+
+    /**
+     * Forget a recorded miss, e.g. because the flag has just been created
+     */
+    public void invalidate(String flagName, Environment environment) {
+        expiresAt.remove(new FlagKey(flagName, environment));
+    }
+
+    public void clear() {
+        expiresAt.clear();
+    }
+}
@@ -0,0 +1,65 @@
+package com.markin.togglefox.service;
+
+import com.markin.togglefox.domain.model.FeatureFlagId;
+import com.markin.togglefox.domain.strategy.AttributeBasedStrategy;
+import com.markin.togglefox.domain.strategy.PercentageRolloutStrategy;
+import com.markin.togglefox.domain.strategy.RolloutStrategy;
+import com.markin.togglefox.domain.strategy.UserTargetingStrategy;
+import com.markin.togglefox.domain.util.BucketingAlgorithm;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Builds rollout strategies from the strategy type and configuration of create and update commands
+ */
+final class RolloutStrategyFactory {
+
+    private RolloutStrategyFactory() {
+    }
+
+    /**
+     * @param defaultBucketing bucketing of a percentage strategy whose configuration does not name one
+     */
+    static RolloutStrategy create(FeatureFlagId flagId, String strategyType, Map<String, Object> config,
+                                  BucketingAlgorithm defaultBucketing) {
+        switch (strategyType.toUpperCase()) {
+            case "PERCENTAGE":
+                Integer percentage = (Integer) config.get("percentage");
+                if (percentage == null) {
+                    throw new IllegalArgumentException("Percentage strategy requires 'percentage' configuration");
+                }
+                return new PercentageRolloutStrategy(flagId, percentage,
+                        bucketingAlgorithm(config, defaultBucketing));
+
+            case "USER_TARGETING":
+                @SuppressWarnings("unchecked")
+                List<String> userList = (List<String>) config.get("users");
+                if (userList == null) {
+                    throw new IllegalArgumentException("User targeting strategy requires 'users' configuration");
+                }
+                return new UserTargetingStrategy(flagId, userList);
+
+            case "ATTRIBUTE_BASED":
+                @SuppressWarnings("unchecked")
+                Map<String, List<Object>> rules = (Map<String, List<Object>>) config.get("rules");
+                if (rules == null) {
+                    throw new IllegalArgumentException("Attribute-based strategy requires 'rules' configuration");
+                }
+                Map<String, Set<Object>> attributeRules = new HashMap<>();
+                rules.forEach((key, values) -> attributeRules.put(key, new HashSet<>(values)));
+                return new AttributeBasedStrategy(flagId, attributeRules);
+
+            default:
+                throw new IllegalArgumentException("Unknown strategy type: " + strategyType);
+        }
+    }
+
+    private static BucketingAlgorithm bucketingAlgorithm(Map<String, Object> config, BucketingAlgorithm defaultAlgorithm) {
+        Object algorithm = config.get("bucketingAlgorithm");
+        return algorithm != null ? BucketingAlgorithm.fromName(algorithm.toString()) : defaultAlgorithm;
+    }
+}
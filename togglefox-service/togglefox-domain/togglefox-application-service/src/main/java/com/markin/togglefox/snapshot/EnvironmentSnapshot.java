@@ -0,0 +1,108 @@
+package com.markin.togglefox.snapshot;
+
+import com.markin.togglefox.domain.model.Environment;
+import com.markin.togglefox.domain.model.EvaluableFlag;
+import com.markin.togglefox.domain.model.FeatureFlagId;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Immutable view of every flag in one environment, keyed by flag name.
+ * Flags are held as shared {@link EvaluableFlag}s, so readers evaluate them directly.
+ * Changes never modify an existing snapshot; they produce a new one
+ * which is swapped in by {@link FlagSnapshotRegistry}.
+ *
+ * The version is that of the shared environment cache the snapshot was read from,
+ * or {@link #UNKNOWN_VERSION} when it was loaded from the repository.
+ */
+public final class EnvironmentSnapshot {
+
+    public static final long UNKNOWN_VERSION = -1;
+
+    private final Environment environment;
+    private final Map<String, EvaluableFlag> flagsByName;
+    private final long version;
+
+    private EnvironmentSnapshot(Environment environment, Map<String, EvaluableFlag> flagsByName, long version) {
+        this.environment = Objects.requireNonNull(environment, "Environment cannot be null");
+        this.flagsByName = Map.copyOf(flagsByName);
+        this.version = version;
+    }
+
+    public static EnvironmentSnapshot empty(Environment environment) {
+        return new EnvironmentSnapshot(environment, Map.of(), UNKNOWN_VERSION);
+    }
+
+    /**
+     * Build a snapshot from the flags loaded for an environment
+     */
+    public static EnvironmentSnapshot of(Environment environment, Collection<EvaluableFlag> flags) {
+        return of(environment, flags, UNKNOWN_VERSION);
+    }
+
+    /**
+     * Build a snapshot from the flags of a cached environment at the given version
+     */
+    public static EnvironmentSnapshot of(Environment environment, Collection<EvaluableFlag> flags, long version) {
+        Map<String, EvaluableFlag> entries = new HashMap<>();
+        for (EvaluableFlag flag : flags) {
+            entries.put(flag.getName(), flag);
+        }
+        return new EnvironmentSnapshot(environment, entries, version);
+    }
+
+    /**
+     * Get the flag with a given name, or null if the flag does not exist
+     */
+    public EvaluableFlag get(String flagName) {
+        return flagsByName.get(flagName);
+    }
+
+    /**
+     * Copy of this snapshot with the given flag added or replaced
+     */
+    public EnvironmentSnapshot with(EvaluableFlag flag) {
+        Map<String, EvaluableFlag> entries = new HashMap<>(flagsByName);
+        // A rename leaves the old name behind, so drop it by id first
+        entries.values().removeIf(entry -> entry.getId().equals(flag.getId()));
+        entries.put(flag.getName(), flag);
+        return new EnvironmentSnapshot(environment, entries, version);
+    }
+
+    /**
+     * Copy of this snapshot without the given flag
+     */
+    public EnvironmentSnapshot without(FeatureFlagId flagId) {
+        Map<String, EvaluableFlag> entries = new HashMap<>(flagsByName);
+        entries.values().removeIf(entry -> entry.getId().equals(flagId));
+        return new EnvironmentSnapshot(environment, entries, version);
+    }
+
+    public Environment getEnvironment() {
+        return environment;
+    }
+
+    public Collection<EvaluableFlag> getFlags() {
+        return flagsByName.values();
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return flagsByName.size();
+    }
+
+    @Override
+    public String toString() {
+        return "EnvironmentSnapshot{" +
+                "environment=" + environment +
+                ", flags=" + flagsByName.size() +
+                ", version=" + version +
+                '}';
+    }
+}
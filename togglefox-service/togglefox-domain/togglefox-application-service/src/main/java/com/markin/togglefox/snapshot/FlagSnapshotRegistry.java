@@ -0,0 +1,331 @@
+package com.markin.togglefox.snapshot;
+
+import com.markin.togglefox.domain.model.Environment;
+import com.markin.togglefox.domain.model.EvaluableFlag;
+import com.markin.togglefox.domain.model.FeatureFlag;
+import com.markin.togglefox.domain.model.FeatureFlagId;
+import com.markin.togglefox.port.out.EnvironmentCacheRepository;
+import com.markin.togglefox.port.out.EnvironmentFlags;
+import com.markin.togglefox.port.out.FeatureFlagRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the current {@link EnvironmentSnapshot} for every environment that has been loaded.
+ *
+ * Readers only ever see a complete snapshot: every change builds a new snapshot
+ * and swaps it in atomically, so evaluation needs no locking and never touches
+ * the database once an environment is loaded.
+ *
+ * Environments are read from the shared {@link EnvironmentCacheRepository} when possible and
+ * only loaded from the repository when it does not have them. A refresh first compares the
+ * cached environment version with the snapshot's and skips the reload when nothing changed.
+ *
+ * First loads run outside the map, and concurrent first requests for an environment share one load.
+ * After a failed load the environment backs off, doubling from {@code failureBackoff} up to
+ * {@code maxFailureBackoff}, and requests fail fast with {@link SnapshotUnavailableException} instead
+ * of starting loads of their own. At most {@code maxEnvironments} are held; the least recently read
+ * one makes room for a new one, and environments unread for {@code idleTimeout} are dropped on refresh.
+ */
+public class FlagSnapshotRegistry {
+
+    private static final int DEFAULT_MAX_ENVIRONMENTS = 256;
+    private static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(30);
+    private static final Duration DEFAULT_FAILURE_BACKOFF = Duration.ofSeconds(1);
+    private static final Duration DEFAULT_MAX_FAILURE_BACKOFF = Duration.ofSeconds(30);
+
+    private final FeatureFlagRepository repository;
+    private final EnvironmentCacheRepository environmentCache;
+    private final int maxEnvironments;
+    private final long idleTimeoutNanos;
+    private final long failureBackoffNanos;
+    private final long maxFailureBackoffNanos;
+
+    private final Map<Environment, Loaded> snapshots = new ConcurrentHashMap<>();
+    private final Map<Environment, CompletableFuture<EnvironmentSnapshot>> loading = new ConcurrentHashMap<>();
+    private final Map<Environment, Failure> failures = new ConcurrentHashMap<>();
+
+    public FlagSnapshotRegistry(FeatureFlagRepository repository, EnvironmentCacheRepository environmentCache) {
+        this(repository, environmentCache, DEFAULT_MAX_ENVIRONMENTS, DEFAULT_IDLE_TIMEOUT,
+                DEFAULT_FAILURE_BACKOFF, DEFAULT_MAX_FAILURE_BACKOFF);
+    }
+
+    public FlagSnapshotRegistry(FeatureFlagRepository repository, EnvironmentCacheRepository environmentCache,
+                                int maxEnvironments, Duration idleTimeout,
+                                Duration failureBackoff, Duration maxFailureBackoff) {
+        this.repository = Objects.requireNonNull(repository, "Repository cannot be null");
+        this.environmentCache = Objects.requireNonNull(environmentCache, "Environment cache cannot be null");
+        if (maxEnvironments <= 0) {
+            throw new IllegalArgumentException("Max environments must be positive");
+        }
+        this.maxEnvironments = maxEnvironments;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.failureBackoffNanos = failureBackoff.toNanos();
+        this.maxFailureBackoffNanos = Math.max(maxFailureBackoff.toNanos(), failureBackoffNanos);
+    }
+
+    /**
+     * Get the snapshot for an environment, loading it on first use.
+     *
+     * @throws SnapshotUnavailableException if the load failed, or failed recently and is backing off
+     */
+    public EnvironmentSnapshot snapshotFor(Environment environment) {
+        Loaded loaded = snapshots.get(environment);
+        if (loaded != null) {
+            loaded.lastReadNanos = System.nanoTime();
+            return loaded.snapshot;
+        }
+        return loadShared(environment);
+    }
+
+    /**
+     * Reload an environment and swap the result in, unless its cached version has not changed.
+     * Changes applied while the reload was running are merged into the reloaded snapshot rather
+     * than overwritten, see {@link #reconcile}.
+     */
+    public EnvironmentSnapshot refresh(Environment environment) {
+        Loaded current = snapshots.get(environment);
+        EnvironmentSnapshot base = current != null ? current.snapshot : null;
+        if (base != null && base.getVersion() != EnvironmentSnapshot.UNKNOWN_VERSION) {
+            OptionalLong version = environmentCache.version(environment);
+            if (version.isPresent() && version.getAsLong() == base.getVersion()) {
+                return base;
+            }
+        }
+
+        EnvironmentSnapshot reloaded = load(environment);
+        return snapshots.compute(environment, (env, latest) -> latest == null
+                ? new Loaded(reloaded, System.nanoTime())
+                : latest.with(reconcile(base, reloaded, latest.snapshot))).snapshot;
+    }
+
+    /**
+     * Install a snapshot built from flags that were already loaded, e.g. by a bulk warm-up
+     */
+    public EnvironmentSnapshot install(Environment environment, List<EvaluableFlag> flags) {
+        EnvironmentSnapshot snapshot = EnvironmentSnapshot.of(environment, flags);
+        snapshots.put(environment, new Loaded(snapshot, System.nanoTime()));
+        evictExcess(environment);
+        return snapshot;
+    }
+
+    /**
+     * Drop environments that were not read for the idle timeout, then reload every other loaded environment
+     */
+    public void refreshAll() {
+        long now = System.nanoTime();
+        snapshots.forEach((environment, loaded) -> {
+            if (now - loaded.lastReadNanos >= idleTimeoutNanos) {
+                snapshots.remove(environment, loaded);
+            }
+        });
+        // A failure older than the longest backoff no longer affects the next attempt
+        failures.values().removeIf(failure -> now - failure.retryAtNanos() >= maxFailureBackoffNanos);
+
+        for (Environment environment : loadedEnvironments()) {
+            refresh(environment);
+        }
+    }
+
+    /**
+     * Publish a changed flag into its environment's snapshot.
+     * Environments that are not loaded yet pick the change up on their first load.
+     */
+    public void apply(FeatureFlag flag) {
+        apply(flag.toEvaluable());
+    }
+
+    /**
+     * Publish a flag changed on this node: into its snapshot here and into the shared environment cache
+     */
+    public void publish(FeatureFlag flag) {
+        EvaluableFlag evaluable = flag.toEvaluable();
+        // Shared cache first, so a refresh running concurrently cannot reload the previous state after the local apply
+        environmentCache.update(evaluable);
+        apply(evaluable);
+    }
+
+    /**
+     * Remove a flag from its environment's snapshot
+     */
+    public void remove(FeatureFlagId flagId, Environment environment) {
+        snapshots.computeIfPresent(environment, (env, loaded) -> loaded.with(loaded.snapshot.without(flagId)));
+    }
+
+    public boolean isLoaded(Environment environment) {
+        return snapshots.containsKey(environment);
+    }
+
+    public Set<Environment> loadedEnvironments() {
+        return Set.copyOf(snapshots.keySet());
+    }
+
+    /**
+     * Load an environment that is not held yet; the first caller loads and the others wait for its result
+     */
+    private EnvironmentSnapshot loadShared(Environment environment) {
+        Failure failure = failures.get(environment);
+        if (failure != null && System.nanoTime() - failure.retryAtNanos() < 0) {
+            throw new SnapshotUnavailableException(environment, failure.cause());
+        }
+
+        CompletableFuture<EnvironmentSnapshot> own = new CompletableFuture<>();
+        CompletableFuture<EnvironmentSnapshot> existing = loading.putIfAbsent(environment, own);
+        if (existing != null) {
+            return await(environment, existing);
+        }
+
+        try {
+            // Another caller may have finished loading between our map read and claiming the load
+            Loaded loaded = snapshots.get(environment);
+            EnvironmentSnapshot snapshot = loaded != null ? loaded.snapshot : admit(environment, load(environment));
+            failures.remove(environment);
+            own.complete(snapshot);
+        } catch (RuntimeException e) {
+            recordFailure(environment, e);
+            own.completeExceptionally(e);
+        } finally {
+            loading.remove(environment, own);
+        }
+        return await(environment, own);
+    }
+
+    private EnvironmentSnapshot admit(Environment environment, EnvironmentSnapshot snapshot) {
+        EnvironmentSnapshot admitted = snapshots.computeIfAbsent(environment,
+                env -> new Loaded(snapshot, System.nanoTime())).snapshot;
+        evictExcess(environment);
+        return admitted;
+    }
+
+    /**
+     * Drop the least recently read environments, other than the one just added, until the bound holds
+     */
+    private void evictExcess(Environment added) {
+        while (snapshots.size() > maxEnvironments) {
+            Environment idlest = null;
+            Loaded idlestLoaded = null;
+            for (Map.Entry<Environment, Loaded> entry : snapshots.entrySet()) {
+                if (!entry.getKey().equals(added)
+                        && (idlestLoaded == null || entry.getValue().lastReadNanos - idlestLoaded.lastReadNanos < 0)) {
+                    idlest = entry.getKey();
+                    idlestLoaded = entry.getValue();
+                }
+            }
+            if (idlest == null) {
+                return;
+            }
+            snapshots.remove(idlest, idlestLoaded);
+        }
+    }
+
+    private void recordFailure(Environment environment, RuntimeException cause) {
+        long now = System.nanoTime();
+        failures.compute(environment, (env, previous) -> {
+            long backoff = previous == null
+                    ? failureBackoffNanos
+                    : Math.min(previous.backoffNanos() * 2, maxFailureBackoffNanos);
+            return new Failure(cause, backoff, now + backoff);
+        });
+    }
+
+    private EnvironmentSnapshot await(Environment environment, CompletableFuture<EnvironmentSnapshot> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw new SnapshotUnavailableException(environment, e.getCause());
+        }
+    }
+
+    private EnvironmentSnapshot load(Environment environment) {
+        Optional<EnvironmentFlags> cached = environmentCache.fetch(environment);
+        if (cached.isPresent()) {
+            return EnvironmentSnapshot.of(environment, cached.get().flags(), cached.get().version());
+        }
+
+        // Version stays unknown, so the next refresh picks up the cached copy stored here
+        List<FeatureFlag> loaded = repository.findByEnvironment(environment);
+        List<EvaluableFlag> flags = new ArrayList<>(loaded.size());
+        for (FeatureFlag flag : loaded) {
+            flags.add(flag.toEvaluable());
+        }
+        environmentCache.storeIfAbsent(environment, flags);
+        return EnvironmentSnapshot.of(environment, flags);
+    }
+
+    /**
+     * Merge a reloaded snapshot with the one installed now.
+     *
+     * {@code base} is the snapshot the reload started from. Anything that differs between it and
+     * {@code latest} was applied locally during the reload and is kept: flags added since are kept,
+     * flags removed since stay removed, and for flags in both the higher version wins.
+     */
+    private static EnvironmentSnapshot reconcile(EnvironmentSnapshot base, EnvironmentSnapshot loaded,
+                                                 EnvironmentSnapshot latest) {
+        Map<FeatureFlagId, EvaluableFlag> baseById = byId(base);
+        Map<FeatureFlagId, EvaluableFlag> latestById = byId(latest);
+
+        List<EvaluableFlag> merged = new ArrayList<>(loaded.size());
+        for (EvaluableFlag flag : loaded.getFlags()) {
+            EvaluableFlag local = latestById.remove(flag.getId());
+            if (local == null) {
+                if (!baseById.containsKey(flag.getId())) {
+                    merged.add(flag);
+                }
+            } else {
+                merged.add(local.getVersion() > flag.getVersion() ? local : flag);
+            }
+        }
+        for (EvaluableFlag local : latestById.values()) {
+            if (!baseById.containsKey(local.getId())) {
+                merged.add(local);
+            }
+        }
+        return EnvironmentSnapshot.of(loaded.getEnvironment(), merged, loaded.getVersion());
+    }
+
+    private static Map<FeatureFlagId, EvaluableFlag> byId(EnvironmentSnapshot snapshot) {
+        Map<FeatureFlagId, EvaluableFlag> flags = new HashMap<>();
+        if (snapshot != null) {
+            for (EvaluableFlag flag : snapshot.getFlags()) {
+                flags.put(flag.getId(), flag);
+            }
+        }
+        return flags;
+    }
+
+    private void apply(EvaluableFlag flag) {
+        snapshots.computeIfPresent(flag.getEnvironment(), (environment, loaded) -> loaded.with(loaded.snapshot.with(flag)));
+    }
+
+    /**
+     * A held snapshot and when it was last read; swaps carry the read time over
+     */
+    private static final class Loaded {
+
+        private final EnvironmentSnapshot snapshot;
+        private volatile long lastReadNanos;
+
+        private Loaded(EnvironmentSnapshot snapshot, long lastReadNanos) {
+            this.snapshot = snapshot;
+            this.lastReadNanos = lastReadNanos;
+        }
+
+        private Loaded with(EnvironmentSnapshot replacement) {
+            return new Loaded(replacement, lastReadNanos);
+        }
+    }
+
+    private record Failure(RuntimeException cause, long backoffNanos, long retryAtNanos) {
+    }
+}
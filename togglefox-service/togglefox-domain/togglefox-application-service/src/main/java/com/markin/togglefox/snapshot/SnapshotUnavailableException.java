@@ -0,0 +1,12 @@
+package com.markin.togglefox.snapshot;
+
+import com.markin.togglefox.domain.model.Environment;
+
+/**
+ * An environment's snapshot could not be loaded, or its last load failed recently and loading is backing off
+ */
+public class SnapshotUnavailableException extends RuntimeException {
+    public SnapshotUnavailableException(Environment environment, Throwable cause) {
+        super("Flag snapshot unavailable for environment: " + environment.getName(), cause);
+    }
+}
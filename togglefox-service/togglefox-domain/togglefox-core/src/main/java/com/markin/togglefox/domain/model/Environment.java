@@ -1,37 +1,83 @@
 package com.markin.togglefox.domain.model;
 
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
 
+/**
+ * Environment a flag lives in.
+ *
+ * Environments of stored flags, and the predefined ones, are interned under their normalized name
+ * through {@link #interned}, so equality is normally an identity check. {@link #of} returns the
+ * interned instance for a known environment but never adds to the table, so names taken from
+ * request input cannot fill it. The table is bounded; beyond that, names are compared by value.
+ */
 public class Environment {
 
+    private static final Pattern VALID_NAME = Pattern.compile("^[a-zA-Z0-9_-]+$");
+
+    // Keyed by normalized name only
+    private static final int MAX_INTERNED = 1024;
+    private static final Map<String, Environment> INTERNED = new ConcurrentHashMap<>();
+
+    private static final Environment DEVELOPMENT = interned("development");
+    private static final Environment STAGING = interned("staging");
+    private static final Environment PRODUCTION = interned("production");
+
     private final String name;
+    private final int hash;
 
     private Environment(String name) {
-        this.name = validateName(name);
+        this.name = name;
+        this.hash = name.hashCode();
     }
 
     public static Environment of(String name) {
-        return new Environment(name);
+        if (name == null) {
+            throw new IllegalArgumentException("Environment name cannot be null or empty");
+        }
+        // Only normalized names are keys, so an already normalized name skips validation
+        Environment interned = INTERNED.get(name);
+        if (interned != null) {
+            return interned;
+        }
+
+        String normalizedName = validateName(name);
+        interned = INTERNED.get(normalizedName);
+        return interned != null ? interned : new Environment(normalizedName);
+    }
+
+    /**
+     * Environment of a flag loaded from storage, shared with every other lookup of that environment
+     */
+    public static Environment interned(String name) {
+        Environment environment = of(name);
+        if (INTERNED.size() >= MAX_INTERNED) {
+            return environment;
+        }
+        Environment existing = INTERNED.putIfAbsent(environment.name, environment);
+        return existing != null ? existing : environment;
     }
 
     // Predefined environments
     public static Environment development() {
-        return new Environment("development");
+        return DEVELOPMENT;
     }
 
     public static Environment staging() {
-        return new Environment("staging");
+        return STAGING;
     }
 
     public static Environment production() {
-        return new Environment("production");
+        return PRODUCTION;
     }
 
-    private String validateName(String name) {
-        if (name == null || name.trim().isEmpty()) {
+    private static String validateName(String name) {
+        if (name.trim().isEmpty()) {
             throw new IllegalArgumentException("Environment name cannot be null or empty");
         }
-        if (!name.matches("^[a-zA-Z0-9_-]+$")) {
+        if (!VALID_NAME.matcher(name).matches()) {
             throw new IllegalArgumentException("Environment name can only contain alphanumeric characters, underscores, and hyphens");
         }
         return name.toLowerCase().trim();
@@ -46,16 +92,16 @@ public class Environment {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Environment that = (Environment) o;
-        return Objects.equals(name, that.name);
+        return hash == that.hash && Objects.equals(name, that.name);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(name);
+        return hash;
     }
 
     @Override
     public String toString() {
         return "Environment{" + name + '}';
     }
-}
\ No newline at end of file
+}
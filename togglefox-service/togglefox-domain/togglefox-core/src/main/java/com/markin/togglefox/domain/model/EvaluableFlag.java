@@ -0,0 +1,88 @@
+package com.markin.togglefox.domain.model;
+
+import com.markin.togglefox.domain.strategy.RolloutStrategy;
+
+import java.util.Objects;
+
+/**
+ * Immutable, evaluation-only view of a {@link FeatureFlag}, produced by {@link FeatureFlag#toEvaluable()}.
+ *
+ * It carries only what evaluation needs and no domain events. Every field is final and strategies
+ * are never modified once built, so a single instance can be cached and shared by any number of
+ * request threads without copying or locking.
+ */
+public final class EvaluableFlag {
+
+    private final FeatureFlagId id;
+    private final String name;
+    private final Environment environment;
+    private final boolean enabled;
+    private final RolloutStrategy strategy;
+    private final long version;
+    private final FlagEvaluationResult disabledResult;
+
+    private EvaluableFlag(FeatureFlagId id, String name, Environment environment, boolean enabled,
+                          RolloutStrategy strategy, long version) {
+        this.id = Objects.requireNonNull(id, "Flag ID cannot be null");
+        this.name = Objects.requireNonNull(name, "Flag name cannot be null");
+        this.environment = Objects.requireNonNull(environment, "Environment cannot be null");
+        this.enabled = enabled;
+        this.strategy = Objects.requireNonNull(strategy, "Rollout strategy cannot be null");
+        this.version = version;
+        this.disabledResult = FlagEvaluationResult.disabled(id, EvaluationReason.FLAG_DISABLED);
+    }
+
+    public static EvaluableFlag of(FeatureFlagId id, String name, Environment environment, boolean enabled,
+                                   RolloutStrategy strategy, long version) {
+        return new EvaluableFlag(id, name, environment, enabled, strategy, version);
+    }
+
+    /**
+     * Evaluate the flag for a given context, with the same rules as {@link FeatureFlag#evaluate}
+     */
+    public FlagEvaluationResult evaluate(EvaluationContext context) {
+        return evaluate(context, true);
+    }
+
+    /**
+     * Evaluate the flag, optionally without reasons; see {@link RolloutStrategy#evaluate(EvaluationContext, boolean)}
+     */
+    public FlagEvaluationResult evaluate(EvaluationContext context, boolean includeReasons) {
+        if (!enabled) {
+            return disabledResult;
+        }
+
+        return strategy.evaluate(context, includeReasons);
+    }
+
+    public FeatureFlagId getId() { return id; }
+    public String getName() { return name; }
+    public Environment getEnvironment() { return environment; }
+    public boolean isEnabled() { return enabled; }
+    public RolloutStrategy getStrategy() { return strategy; }
+    public long getVersion() { return version; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        EvaluableFlag that = (EvaluableFlag) o;
+        return version == that.version && Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, version);
+    }
+
+    @Override
+    public String toString() {
+        return "EvaluableFlag{" +
+                "id=" + id +
+                ", name='" + name + '\'' +
+                ", enabled=" + enabled +
+                ", environment=" + environment +
+                ", version=" + version +
+                '}';
+    }
+}
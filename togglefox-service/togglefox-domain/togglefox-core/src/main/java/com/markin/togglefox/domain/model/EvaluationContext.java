@@ -1,43 +1,66 @@
 package com.markin.togglefox.domain.model;
 
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
-
+import java.util.Set;
+
+/**
+ * Immutable evaluation input: a user id and read-only attributes.
+ *
+ * The attributes are copied once when the context is built and never again. Small maps are
+ * flattened into a key/value array that is scanned linearly, which beats hashing for the
+ * handful of attributes a request usually carries; larger maps are copied into a hash map.
+ * Later changes to the caller's map are not seen. One context can be evaluated against any
+ * number of flags and shared between threads.
+ */
 public class EvaluationContext {
 
+    // Up to this many attributes are flattened instead of copied into a hash map
+    private static final int MAX_FLAT_ATTRIBUTES = 8;
+
+    private static final EvaluationContext ANONYMOUS = new EvaluationContext(null, Collections.emptyMap());
+
     private final String userId;
     private final Map<String, Object> attributes;
 
     private EvaluationContext(String userId, Map<String, Object> attributes) {
         this.userId = userId;
-        this.attributes = new HashMap<>(attributes);
+        this.attributes = attributes;
     }
 
     public static EvaluationContext forUser(String userId) {
-        return new EvaluationContext(userId, new HashMap<>());
+        return new EvaluationContext(userId, Collections.emptyMap());
     }
 
     public static EvaluationContext forUserWithAttributes(String userId, Map<String, Object> attributes) {
-        return new EvaluationContext(userId, attributes);
+        return new EvaluationContext(userId, readOnly(attributes, false));
     }
 
     public static EvaluationContext anonymous() {
-        return new EvaluationContext(null, new HashMap<>());
+        return ANONYMOUS;
     }
 
     public EvaluationContext withAttribute(String key, Object value) {
         Map<String, Object> newAttributes = new HashMap<>(this.attributes);
         newAttributes.put(key, value);
-        return new EvaluationContext(this.userId, newAttributes);
+        return new EvaluationContext(this.userId, readOnly(newAttributes, true));
     }
 
     public String getUserId() {
         return userId;
     }
 
+    /**
+     * Read-only view of the attributes
+     */
     public Map<String, Object> getAttributes() {
-        return new HashMap<>(attributes);
+        return attributes;
     }
 
     public Object getAttribute(String key) {
@@ -52,6 +75,20 @@ public class EvaluationContext {
         return userId == null;
     }
 
+    /**
+     * @param owned whether the map is private to this class and can be wrapped without a copy
+     */
+    private static Map<String, Object> readOnly(Map<String, Object> attributes, boolean owned) {
+        if (attributes == null || attributes.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        if (attributes.size() <= MAX_FLAT_ATTRIBUTES) {
+            return new FlatAttributes(attributes);
+        }
+        // HashMap rather than Map.copyOf, since attribute values may be null
+        return Collections.unmodifiableMap(owned ? attributes : new HashMap<>(attributes));
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -73,4 +110,79 @@ public class EvaluationContext {
                 ", attributes=" + attributes +
                 '}';
     }
+
+    /**
+     * Read-only map over alternating keys and values in a single array
+     */
+    private static final class FlatAttributes extends AbstractMap<String, Object> {
+
+        private final Object[] keysAndValues;
+
+        private FlatAttributes(Map<String, Object> attributes) {
+            this.keysAndValues = new Object[attributes.size() * 2];
+            int i = 0;
+            for (Map.Entry<String, Object> attribute : attributes.entrySet()) {
+                keysAndValues[i++] = attribute.getKey();
+                keysAndValues[i++] = attribute.getValue();
+            }
+        }
+
+        @Override
+        public int size() {
+            return keysAndValues.length / 2;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return indexOf(key) >= 0;
+        }
+
+        @Override
+        public Object get(Object key) {
+            int index = indexOf(key);
+            return index >= 0 ? keysAndValues[index + 1] : null;
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    return new Iterator<>() {
+                        private int index;
+
+                        @Override
+                        public boolean hasNext() {
+                            return index < keysAndValues.length;
+                        }
+
+                        @Override
+                        public Entry<String, Object> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            Entry<String, Object> entry = new SimpleImmutableEntry<>(
+                                    (String) keysAndValues[index], keysAndValues[index + 1]);
+                            index += 2;
+                            return entry;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return FlatAttributes.this.size();
+                }
+            };
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < keysAndValues.length; i += 2) {
+                if (Objects.equals(keysAndValues[i], key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
 }
@@ -0,0 +1,29 @@
+package com.markin.togglefox.domain.model;
+
+/**
+ * Why a flag evaluated the way it did. The description is the reason shown when no detail was rendered.
+ */
+public enum EvaluationReason {
+
+    FLAG_NOT_FOUND("Feature flag not found"),
+    FLAG_DISABLED("Feature flag is disabled"),
+    ANONYMOUS_USER("Anonymous users cannot be evaluated by this strategy"),
+    IN_ROLLOUT("User in rollout"),
+    NOT_IN_ROLLOUT("User not in rollout"),
+    USER_TARGETED("User is in targeted user list"),
+    USER_NOT_TARGETED("User is not in targeted user list"),
+    RULES_MATCHED("All attribute rules matched"),
+    RULES_NOT_MATCHED("Some attribute rules failed"),
+    NO_RULES("No attribute rules configured"),
+    CUSTOM("Reason given by the caller");
+
+    private final String description;
+
+    EvaluationReason(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -15,6 +15,8 @@ public class FeatureFlag {
     private RolloutStrategy rolloutStrategy;
     private final LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private long version;
+    private boolean persisted;
     private final List<DomainEvent> domainEvents;
 
 
@@ -49,9 +51,22 @@ public class FeatureFlag {
                                           boolean enabled, Environment environment,
                                           RolloutStrategy rolloutStrategy, LocalDateTime createdAt,
                                           LocalDateTime updatedAt) {
+        return reconstruct(id, name, description, enabled, environment, rolloutStrategy, createdAt, updatedAt, 0L);
+    }
+
+    /**
+     * Factory method to reconstruct from persistence, including the persisted version.
+     * The version increases with every saved change and orders copies of the same flag.
+     */
+    public static FeatureFlag reconstruct(FeatureFlagId id, String name, String description,
+                                          boolean enabled, Environment environment,
+                                          RolloutStrategy rolloutStrategy, LocalDateTime createdAt,
+                                          LocalDateTime updatedAt, long version) {
         FeatureFlag flag = new FeatureFlag(id, name, description, environment, rolloutStrategy);
         flag.enabled = enabled;
         flag.updatedAt = updatedAt;
+        flag.version = version;
+        flag.persisted = true;
         // Clear events for reconstructed entities
         flag.domainEvents.clear();
         return flag;
@@ -99,12 +114,19 @@ public class FeatureFlag {
      */
     public FlagEvaluationResult evaluate(EvaluationContext context) {
         if (!this.enabled) {
-            return FlagEvaluationResult.disabled(this.id, "Feature flag is disabled");
+            return FlagEvaluationResult.disabled(this.id, EvaluationReason.FLAG_DISABLED);
         }
 
         return this.rolloutStrategy.evaluate(context);
     }
 
+    /**
+     * Immutable copy of the current evaluation state, safe to cache and share between threads
+     */
+    public EvaluableFlag toEvaluable() {
+        return EvaluableFlag.of(this.id, this.name, this.environment, this.enabled, this.rolloutStrategy, this.version);
+    }
+
     /**
      * Update basic information
      */
@@ -146,6 +168,8 @@ public class FeatureFlag {
     public RolloutStrategy getRolloutStrategy() { return rolloutStrategy; }
     public LocalDateTime getCreatedAt() { return createdAt; }
     public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public long getVersion() { return version; }
+    public boolean isPersisted() { return persisted; }
 
     @Override
     public boolean equals(Object o) {
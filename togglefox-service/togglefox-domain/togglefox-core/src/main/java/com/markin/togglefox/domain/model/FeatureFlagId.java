@@ -1,27 +1,60 @@
 package com.markin.togglefox.domain.model;
 
+import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Identity of a feature flag.
+ *
+ * Ids of stored flags are interned through {@link #interned} when the flag is loaded, so every copy
+ * of a stored flag shares one instance and equality is normally an identity check. {@link #of} hands
+ * out that instance when there is one but never adds to the table, so ids taken from request input
+ * cannot fill it. The table is bounded; ids loaded once it is full are compared by value.
+ */
 public class FeatureFlagId {
 
+    private static final int MAX_INTERNED = 65_536;
+    private static final Map<String, FeatureFlagId> INTERNED = new ConcurrentHashMap<>();
+
     private final String value;
+    private final int hash;
 
     private FeatureFlagId(String value) {
-        this.value = Objects.requireNonNull(value, "FeatureFlagId value cannot be null");
-        if (value.trim().isEmpty()) {
-            throw new IllegalArgumentException("FeatureFlagId value cannot be empty");
-        }
+        this.value = value;
+        this.hash = value.hashCode();
     }
 
     public static FeatureFlagId of(String value) {
-        return new FeatureFlagId(value);
+        Objects.requireNonNull(value, "FeatureFlagId value cannot be null");
+        FeatureFlagId interned = INTERNED.get(value);
+        return interned != null ? interned : new FeatureFlagId(validate(value));
+    }
+
+    /**
+     * Id of a flag loaded from storage, shared with every other copy of that flag
+     */
+    public static FeatureFlagId interned(String value) {
+        FeatureFlagId id = of(value);
+        if (INTERNED.size() >= MAX_INTERNED) {
+            return id;
+        }
+        FeatureFlagId existing = INTERNED.putIfAbsent(id.value, id);
+        return existing != null ? existing : id;
     }
 
     public static FeatureFlagId generate() {
         return new FeatureFlagId(UUID.randomUUID().toString());
     }
 
+    private static String validate(String value) {
+        if (value.trim().isEmpty()) {
+            throw new IllegalArgumentException("FeatureFlagId value cannot be empty");
+        }
+        return value;
+    }
+
     public String getValue() {
         return value;
     }
@@ -31,16 +64,16 @@ public class FeatureFlagId {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         FeatureFlagId that = (FeatureFlagId) o;
-        return Objects.equals(value, that.value);
+        return hash == that.hash && Objects.equals(value, that.value);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(value);
+        return hash;
     }
 
     @Override
     public String toString() {
         return "FeatureFlagId{" + value + '}';
     }
-}
\ No newline at end of file
+}
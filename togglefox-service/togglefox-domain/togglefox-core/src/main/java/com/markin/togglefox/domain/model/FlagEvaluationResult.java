@@ -1,32 +1,88 @@
 package com.markin.togglefox.domain.model;
 
 import java.util.Objects;
+import java.util.function.Supplier;
 
+/**
+ * Outcome of evaluating a flag: whether it is enabled, a structured {@link EvaluationReason},
+ * and a human-readable reason.
+ *
+ * The readable reason is either fixed or rendered from a supplier on the first {@link #getReason()}
+ * call, so callers that only read {@link #isEnabled()} never pay for building it. Results without
+ * detail are immutable and can be shared as constants.
+ */
 public class FlagEvaluationResult {
 
+    // Shared result for unknown flags; results are immutable so one instance serves every lookup
+    private static final FlagEvaluationResult NOT_FOUND =
+            new FlagEvaluationResult(FeatureFlagId.of("unknown"), false, EvaluationReason.FLAG_NOT_FOUND,
+                    null, null, null);
+
     private final FeatureFlagId flagId;
     private final boolean enabled;
-    private final String reason;
+    private final EvaluationReason reasonCode;
+    private final Supplier<String> reasonDetail;
     private final Object variation;
+    // Rendered on first use and published through the volatile write; threads racing to render it produce equal strings
+    private volatile String reason;
 
-    private FlagEvaluationResult(FeatureFlagId flagId, boolean enabled, String reason, Object variation) {
+    private FlagEvaluationResult(FeatureFlagId flagId, boolean enabled, EvaluationReason reasonCode,
+                                 String reason, Supplier<String> reasonDetail, Object variation) {
         this.flagId = Objects.requireNonNull(flagId, "Flag ID cannot be null");
         this.enabled = enabled;
+        this.reasonCode = Objects.requireNonNull(reasonCode, "Reason code cannot be null");
         this.reason = reason;
+        this.reasonDetail = reasonDetail;
         this.variation = variation;
     }
 
+    /**
+     * Enabled result with only a free-text reason, reported under {@link EvaluationReason#CUSTOM}
+     */
     public static FlagEvaluationResult enabled(FeatureFlagId flagId, String reason) {
-        return new FlagEvaluationResult(flagId, true, reason, null);
+        return enabled(flagId, EvaluationReason.CUSTOM, reason);
+    }
+
+    public static FlagEvaluationResult enabled(FeatureFlagId flagId, EvaluationReason reasonCode) {
+        return new FlagEvaluationResult(flagId, true, reasonCode, null, null, null);
+    }
+
+    public static FlagEvaluationResult enabled(FeatureFlagId flagId, EvaluationReason reasonCode, String reason) {
+        return new FlagEvaluationResult(flagId, true, reasonCode, reason, null, null);
     }
 
+    public static FlagEvaluationResult enabled(FeatureFlagId flagId, EvaluationReason reasonCode,
+                                               Supplier<String> reasonDetail) {
+        return new FlagEvaluationResult(flagId, true, reasonCode, null, reasonDetail, null);
+    }
+
+    /**
+     * Disabled result with only a free-text reason, reported under {@link EvaluationReason#CUSTOM}
+     */
     public static FlagEvaluationResult disabled(FeatureFlagId flagId, String reason) {
-        return new FlagEvaluationResult(flagId, false, reason, null);
+        return disabled(flagId, EvaluationReason.CUSTOM, reason);
+    }
+
+    public static FlagEvaluationResult disabled(FeatureFlagId flagId, EvaluationReason reasonCode) {
+        return new FlagEvaluationResult(flagId, false, reasonCode, null, null, null);
+    }
+
+    public static FlagEvaluationResult disabled(FeatureFlagId flagId, EvaluationReason reasonCode, String reason) {
+        return new FlagEvaluationResult(flagId, false, reasonCode, reason, null, null);
+    }
+
+    public static FlagEvaluationResult disabled(FeatureFlagId flagId, EvaluationReason reasonCode,
+                                                Supplier<String> reasonDetail) {
+        return new FlagEvaluationResult(flagId, false, reasonCode, null, reasonDetail, null);
+    }
+
+    public static FlagEvaluationResult notFound() {
+        return NOT_FOUND;
     }
 
     public static FlagEvaluationResult withVariation(FeatureFlagId flagId, boolean enabled,
-                                                     String reason, Object variation) {
-        return new FlagEvaluationResult(flagId, enabled, reason, variation);
+                                                     EvaluationReason reasonCode, Object variation) {
+        return new FlagEvaluationResult(flagId, enabled, reasonCode, null, null, variation);
     }
 
     public FeatureFlagId getFlagId() {
@@ -37,8 +93,20 @@ public class FlagEvaluationResult {
         return enabled;
     }
 
+    public EvaluationReason getReasonCode() {
+        return reasonCode;
+    }
+
+    /**
+     * Human-readable reason, rendered on first call when the result carries lazy detail
+     */
     public String getReason() {
-        return reason;
+        String rendered = reason;
+        if (rendered == null) {
+            rendered = reasonDetail != null ? reasonDetail.get() : reasonCode.getDescription();
+            reason = rendered;
+        }
+        return rendered;
     }
 
     public Object getVariation() {
@@ -52,13 +120,13 @@ public class FlagEvaluationResult {
         FlagEvaluationResult that = (FlagEvaluationResult) o;
         return enabled == that.enabled &&
                 Objects.equals(flagId, that.flagId) &&
-                Objects.equals(reason, that.reason) &&
+                reasonCode == that.reasonCode &&
                 Objects.equals(variation, that.variation);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(flagId, enabled, reason, variation);
+        return Objects.hash(flagId, enabled, reasonCode, variation);
     }
 
     @Override
@@ -66,8 +134,8 @@ public class FlagEvaluationResult {
         return "FlagEvaluationResult{" +
                 "flagId=" + flagId +
                 ", enabled=" + enabled +
-                ", reason='" + reason + '\'' +
+                ", reasonCode=" + reasonCode +
                 ", variation=" + variation +
                 '}';
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,7 @@
 package com.markin.togglefox.domain.strategy;
 
 import com.markin.togglefox.domain.model.EvaluationContext;
+import com.markin.togglefox.domain.model.EvaluationReason;
 import com.markin.togglefox.domain.model.FeatureFlagId;
 import com.markin.togglefox.domain.model.FlagEvaluationResult;
 
@@ -11,6 +12,14 @@ public class AttributeBasedStrategy implements RolloutStrategy {
     private final FeatureFlagId flagId;
     private final Map<String, Set<Object>> attributeRules;
 
+    // Rules compiled once, most selective first, so evaluation stops at the likeliest failure
+    private final AttributePredicate[] predicates;
+
+    // Outcomes without per-user detail are shared
+    private final FlagEvaluationResult noRulesResult;
+    private final FlagEvaluationResult matchedResult;
+    private final FlagEvaluationResult notMatchedResult;
+
     public AttributeBasedStrategy(FeatureFlagId flagId, Map<String, Set<Object>> attributeRules) {
         this.flagId = Objects.requireNonNull(flagId, "Flag ID cannot be null");
         this.attributeRules = new HashMap<>();
@@ -18,14 +27,56 @@ public class AttributeBasedStrategy implements RolloutStrategy {
             attributeRules.forEach((key, values) ->
                     this.attributeRules.put(key, new HashSet<>(values)));
         }
+        this.predicates = compile(this.attributeRules);
+        this.noRulesResult = FlagEvaluationResult.disabled(flagId, EvaluationReason.NO_RULES);
+        this.matchedResult = FlagEvaluationResult.enabled(flagId, EvaluationReason.RULES_MATCHED);
+        this.notMatchedResult = FlagEvaluationResult.disabled(flagId, EvaluationReason.RULES_NOT_MATCHED);
     }
 
     @Override
-    public FlagEvaluationResult evaluate(EvaluationContext context) {
-        if (attributeRules.isEmpty()) {
-            return FlagEvaluationResult.disabled(flagId, "No attribute rules configured");
+    public FlagEvaluationResult evaluate(EvaluationContext context, boolean includeReasons) {
+        if (predicates.length == 0) {
+            return noRulesResult;
+        }
+
+        boolean allRulesMatched = true;
+        for (AttributePredicate predicate : predicates) {
+            if (!predicate.test(context)) {
+                allRulesMatched = false;
+                break;
+            }
         }
 
+        if (!includeReasons) {
+            return allRulesMatched ? matchedResult : notMatchedResult;
+        }
+        // The context is immutable, so the rule breakdown can be rendered later from it
+        return allRulesMatched
+                ? FlagEvaluationResult.enabled(flagId, EvaluationReason.RULES_MATCHED, () -> describe(context))
+                : FlagEvaluationResult.disabled(flagId, EvaluationReason.RULES_NOT_MATCHED, () -> describe(context));
+    }
+
+    @Override
+    public String getStrategyType() {
+        return "ATTRIBUTE_BASED";
+    }
+
+    @Override
+    public boolean isValid() {
+        return attributeRules != null && !attributeRules.isEmpty();
+    }
+
+    private static AttributePredicate[] compile(Map<String, Set<Object>> attributeRules) {
+        AttributePredicate[] compiled = new AttributePredicate[attributeRules.size()];
+        int i = 0;
+        for (Map.Entry<String, Set<Object>> rule : attributeRules.entrySet()) {
+            compiled[i++] = AttributePredicate.compile(rule.getKey(), rule.getValue());
+        }
+        Arrays.sort(compiled, Comparator.comparingInt(AttributePredicate::valueCount));
+        return compiled;
+    }
+
+    private String describe(EvaluationContext context) {
         List<String> matchedRules = new ArrayList<>();
         List<String> failedRules = new ArrayList<>();
 
@@ -46,24 +97,9 @@ public class AttributeBasedStrategy implements RolloutStrategy {
             }
         }
 
-        boolean allRulesMatched = failedRules.isEmpty();
-        String reason = allRulesMatched
+        return failedRules.isEmpty()
                 ? "All attribute rules matched: " + matchedRules
                 : "Some attribute rules failed: " + failedRules;
-
-        return allRulesMatched
-                ? FlagEvaluationResult.enabled(flagId, reason)
-                : FlagEvaluationResult.disabled(flagId, reason);
-    }
-
-    @Override
-    public String getStrategyType() {
-        return "ATTRIBUTE_BASED";
-    }
-
-    @Override
-    public boolean isValid() {
-        return attributeRules != null && !attributeRules.isEmpty();
     }
 
     public Map<String, Set<Object>> getAttributeRules() {
@@ -0,0 +1,160 @@
+package com.markin.togglefox.domain.strategy;
+
+import com.markin.togglefox.domain.model.EvaluationContext;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * One compiled attribute rule of an {@link AttributeBasedStrategy}: the context attribute must be one
+ * of a fixed set of values.
+ *
+ * Rules are specialized by the type of their values so matching neither allocates nor boxes: a single
+ * value is one equals call, a few strings are scanned, and integral values are binary-searched in a
+ * sorted {@code long[]}. Matching keeps {@link Set#contains} semantics, so values only match values
+ * of the same type.
+ */
+abstract class AttributePredicate {
+
+    // String sets up to this size are scanned instead of hashed
+    private static final int MAX_SCANNED_STRINGS = 8;
+
+    private final String attribute;
+    private final boolean allowsNull;
+    private final int valueCount;
+
+    private AttributePredicate(String attribute, boolean allowsNull, int valueCount) {
+        this.attribute = attribute;
+        this.allowsNull = allowsNull;
+        this.valueCount = valueCount;
+    }
+
+    static AttributePredicate compile(String attribute, Set<Object> values) {
+        boolean allowsNull = values.contains(null);
+        Set<Object> nonNull = new HashSet<>(values);
+        nonNull.remove(null);
+        int valueCount = values.size();
+
+        if (nonNull.size() == 1) {
+            return new SingleValue(attribute, allowsNull, valueCount, nonNull.iterator().next());
+        }
+        if (!nonNull.isEmpty() && allInstancesOf(nonNull, String.class)) {
+            return nonNull.size() <= MAX_SCANNED_STRINGS
+                    ? new ScannedStrings(attribute, allowsNull, valueCount, nonNull.toArray(new String[0]))
+                    : new AnyValue(attribute, allowsNull, valueCount, nonNull);
+        }
+        if (!nonNull.isEmpty() && allInstancesOf(nonNull, Integer.class)) {
+            return new IntegralValues(attribute, allowsNull, valueCount, Integer.class, nonNull);
+        }
+        if (!nonNull.isEmpty() && allInstancesOf(nonNull, Long.class)) {
+            return new IntegralValues(attribute, allowsNull, valueCount, Long.class, nonNull);
+        }
+        return new AnyValue(attribute, allowsNull, valueCount, nonNull);
+    }
+
+    /**
+     * Whether the context satisfies this rule
+     */
+    final boolean test(EvaluationContext context) {
+        Object actual = context.getAttribute(attribute);
+        if (actual == null) {
+            return allowsNull && context.hasAttribute(attribute);
+        }
+        return matches(actual);
+    }
+
+    /**
+     * Number of accepted values; rules accepting fewer values are more likely to fail, so they run first
+     */
+    final int valueCount() {
+        return valueCount;
+    }
+
+    abstract boolean matches(Object actual);
+
+    private static boolean allInstancesOf(Set<Object> values, Class<?> type) {
+        for (Object value : values) {
+            if (value.getClass() != type) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class SingleValue extends AttributePredicate {
+
+        private final Object expected;
+
+        private SingleValue(String attribute, boolean allowsNull, int valueCount, Object expected) {
+            super(attribute, allowsNull, valueCount);
+            this.expected = expected;
+        }
+
+        @Override
+        boolean matches(Object actual) {
+            return expected.equals(actual);
+        }
+    }
+
+    private static final class ScannedStrings extends AttributePredicate {
+
+        private final String[] expected;
+
+        private ScannedStrings(String attribute, boolean allowsNull, int valueCount, String[] expected) {
+            super(attribute, allowsNull, valueCount);
+            this.expected = expected;
+        }
+
+        @Override
+        boolean matches(Object actual) {
+            if (!(actual instanceof String)) {
+                return false;
+            }
+            for (String value : expected) {
+                if (value.equals(actual)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class IntegralValues extends AttributePredicate {
+
+        private final Class<?> type;
+        private final long[] sorted;
+
+        private IntegralValues(String attribute, boolean allowsNull, int valueCount,
+                               Class<?> type, Set<Object> values) {
+            super(attribute, allowsNull, valueCount);
+            this.type = type;
+            this.sorted = new long[values.size()];
+            int i = 0;
+            for (Object value : values) {
+                sorted[i++] = ((Number) value).longValue();
+            }
+            Arrays.sort(sorted);
+        }
+
+        @Override
+        boolean matches(Object actual) {
+            return actual.getClass() == type && Arrays.binarySearch(sorted, ((Number) actual).longValue()) >= 0;
+        }
+    }
+
+    private static final class AnyValue extends AttributePredicate {
+
+        private final Set<Object> expected;
+
+        private AnyValue(String attribute, boolean allowsNull, int valueCount, Set<Object> expected) {
+            super(attribute, allowsNull, valueCount);
+            this.expected = expected;
+        }
+
+        @Override
+        boolean matches(Object actual) {
+            return expected.contains(actual);
+        }
+    }
+}
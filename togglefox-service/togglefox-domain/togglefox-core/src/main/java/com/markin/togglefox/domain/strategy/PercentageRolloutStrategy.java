@@ -1,8 +1,10 @@
 package com.markin.togglefox.domain.strategy;
 
 import com.markin.togglefox.domain.model.FeatureFlagId;
-import com.markin.togglefox.domain.util.UserHashUtil;
+import com.markin.togglefox.domain.util.BucketHasher;
+import com.markin.togglefox.domain.util.BucketingAlgorithm;
 import com.markin.togglefox.domain.model.EvaluationContext;
+import com.markin.togglefox.domain.model.EvaluationReason;
 import com.markin.togglefox.domain.model.FlagEvaluationResult;
 
 import java.util.Objects;
@@ -11,29 +13,47 @@ public class PercentageRolloutStrategy implements RolloutStrategy {
 
     private final int percentage;
     private final FeatureFlagId flagId;
+    private final BucketingAlgorithm bucketingAlgorithm;
+    private final BucketHasher bucketHasher;
+
+    // Outcomes without per-user detail are shared
+    private final FlagEvaluationResult anonymousResult;
+    private final FlagEvaluationResult inRolloutResult;
+    private final FlagEvaluationResult notInRolloutResult;
 
     public PercentageRolloutStrategy(FeatureFlagId flagId, int percentage) {
+        this(flagId, percentage, BucketingAlgorithm.MURMUR3);
+    }
+
+    public PercentageRolloutStrategy(FeatureFlagId flagId, int percentage, BucketingAlgorithm bucketingAlgorithm) {
         this.flagId = Objects.requireNonNull(flagId, "Flag ID cannot be null");
         this.percentage = validatePercentage(percentage);
+        this.bucketingAlgorithm = Objects.requireNonNull(bucketingAlgorithm, "Bucketing algorithm cannot be null");
+        this.bucketHasher = bucketingAlgorithm.forFlag(flagId.getValue());
+        this.anonymousResult = FlagEvaluationResult.disabled(flagId, EvaluationReason.ANONYMOUS_USER,
+                "Anonymous users not supported for percentage rollout");
+        this.inRolloutResult = FlagEvaluationResult.enabled(flagId, EvaluationReason.IN_ROLLOUT);
+        this.notInRolloutResult = FlagEvaluationResult.disabled(flagId, EvaluationReason.NOT_IN_ROLLOUT);
     }
 
     @Override
-    public FlagEvaluationResult evaluate(EvaluationContext context) {
+    public FlagEvaluationResult evaluate(EvaluationContext context, boolean includeReasons) {
         if (context.isAnonymous()) {
-            return FlagEvaluationResult.disabled(flagId, "Anonymous users not supported for percentage rollout");
+            return anonymousResult;
         }
 
         // Use consistent hashing to determine if user is in rollout
-        int userHash = UserHashUtil.hashUser(context.getUserId(), flagId.getValue());
+        int userHash = bucketHasher.bucket(context.getUserId());
         boolean enabled = userHash < percentage;
 
-        String reason = enabled
-                ? "User in " + percentage + "% rollout (hash: " + userHash + ")"
-                : "User not in " + percentage + "% rollout (hash: " + userHash + ")";
-
+        if (!includeReasons) {
+            return enabled ? inRolloutResult : notInRolloutResult;
+        }
         return enabled
-                ? FlagEvaluationResult.enabled(flagId, reason)
-                : FlagEvaluationResult.disabled(flagId, reason);
+                ? FlagEvaluationResult.enabled(flagId, EvaluationReason.IN_ROLLOUT,
+                        () -> "User in " + percentage + "% rollout (hash: " + userHash + ")")
+                : FlagEvaluationResult.disabled(flagId, EvaluationReason.NOT_IN_ROLLOUT,
+                        () -> "User not in " + percentage + "% rollout (hash: " + userHash + ")");
     }
 
     @Override
@@ -57,17 +77,22 @@ public class PercentageRolloutStrategy implements RolloutStrategy {
         return percentage;
     }
 
+    public BucketingAlgorithm getBucketingAlgorithm() {
+        return bucketingAlgorithm;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         PercentageRolloutStrategy that = (PercentageRolloutStrategy) o;
-        return percentage == that.percentage && Objects.equals(flagId, that.flagId);
+        return percentage == that.percentage && Objects.equals(flagId, that.flagId)
+                && bucketingAlgorithm == that.bucketingAlgorithm;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(percentage, flagId);
+        return Objects.hash(percentage, flagId, bucketingAlgorithm);
     }
 
     @Override
@@ -75,6 +100,7 @@ public class PercentageRolloutStrategy implements RolloutStrategy {
         return "PercentageRolloutStrategy{" +
                 "percentage=" + percentage +
                 ", flagId=" + flagId +
+                ", bucketingAlgorithm=" + bucketingAlgorithm +
                 '}';
     }
 }
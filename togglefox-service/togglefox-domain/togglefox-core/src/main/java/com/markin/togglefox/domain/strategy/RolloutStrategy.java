@@ -5,9 +5,17 @@ import com.markin.togglefox.domain.model.FlagEvaluationResult;
 
 public interface RolloutStrategy {
     /**
-     * Evaluate the strategy for the given context
+     * Evaluate the strategy for the given context.
+     * Without reasons the result carries only its reason code, so it can be a shared constant.
      */
-    FlagEvaluationResult evaluate(EvaluationContext context);
+    FlagEvaluationResult evaluate(EvaluationContext context, boolean includeReasons);
+
+    /**
+     * Evaluate the strategy for the given context, with reasons
+     */
+    default FlagEvaluationResult evaluate(EvaluationContext context) {
+        return evaluate(context, true);
+    }
 
     /**
      * Get the strategy type for serialization/persistence
@@ -1,34 +1,44 @@
 package com.markin.togglefox.domain.strategy;
 
 import com.markin.togglefox.domain.model.EvaluationContext;
+import com.markin.togglefox.domain.model.EvaluationReason;
 import com.markin.togglefox.domain.model.FeatureFlagId;
 import com.markin.togglefox.domain.model.FlagEvaluationResult;
+import com.markin.togglefox.domain.util.CompactStringSet;
 
 import java.util.*;
 
+/**
+ * Enables a flag for an explicit list of users.
+ *
+ * The list is held in a {@link CompactStringSet}, so lists of millions of IDs stay small on the heap
+ * and are shared rather than copied when read.
+ */
 public class UserTargetingStrategy implements RolloutStrategy {
     private final FeatureFlagId flagId;
-    private final Set<String> targetedUsers;
+    private final CompactStringSet targetedUsers;
 
-    public UserTargetingStrategy(FeatureFlagId flagId, Set<String> targetedUsers) {
+    // Every outcome is independent of the user, so results are shared
+    private final FlagEvaluationResult anonymousResult;
+    private final FlagEvaluationResult targetedResult;
+    private final FlagEvaluationResult notTargetedResult;
+
+    public UserTargetingStrategy(FeatureFlagId flagId, Collection<String> targetedUsers) {
         this.flagId = Objects.requireNonNull(flagId, "Flag ID cannot be null");
-        this.targetedUsers = new HashSet<>(Objects.requireNonNull(targetedUsers, "Targeted users cannot be null"));
+        this.targetedUsers = CompactStringSet.of(Objects.requireNonNull(targetedUsers, "Targeted users cannot be null"));
+        this.anonymousResult = FlagEvaluationResult.disabled(flagId, EvaluationReason.ANONYMOUS_USER,
+                "Anonymous users cannot be targeted");
+        this.targetedResult = FlagEvaluationResult.enabled(flagId, EvaluationReason.USER_TARGETED);
+        this.notTargetedResult = FlagEvaluationResult.disabled(flagId, EvaluationReason.USER_NOT_TARGETED);
     }
 
     @Override
-    public FlagEvaluationResult evaluate(EvaluationContext context) {
+    public FlagEvaluationResult evaluate(EvaluationContext context, boolean includeReasons) {
         if (context.isAnonymous()) {
-            return FlagEvaluationResult.disabled(flagId, "Anonymous users cannot be targeted");
+            return anonymousResult;
         }
 
-        boolean enabled = targetedUsers.contains(context.getUserId());
-        String reason = enabled
-                ? "User is in targeted user list"
-                : "User is not in targeted user list";
-
-        return enabled
-                ? FlagEvaluationResult.enabled(flagId, reason)
-                : FlagEvaluationResult.disabled(flagId, reason);
+        return targetedUsers.contains(context.getUserId()) ? targetedResult : notTargetedResult;
     }
 
     @Override
@@ -41,8 +51,11 @@ public class UserTargetingStrategy implements RolloutStrategy {
         return targetedUsers != null && !targetedUsers.isEmpty();
     }
 
+    /**
+     * Read-only view of the targeted users, in sorted order
+     */
     public Set<String> getTargetedUsers() {
-        return new HashSet<>(targetedUsers);
+        return targetedUsers;
     }
 
     @Override
@@ -62,7 +75,7 @@ public class UserTargetingStrategy implements RolloutStrategy {
     public String toString() {
         return "UserTargetingStrategy{" +
                 "flagId=" + flagId +
-                ", targetedUsers=" + targetedUsers +
+                ", targetedUsers=" + targetedUsers.size() +
                 '}';
     }
 }
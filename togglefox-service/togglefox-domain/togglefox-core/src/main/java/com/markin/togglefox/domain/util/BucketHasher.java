@@ -0,0 +1,14 @@
+package com.markin.togglefox.domain.util;
+
+/**
+ * Maps a user to a rollout bucket (0-99) for one specific flag.
+ * Instances are bound to a flag so per-flag setup (e.g. seeds) is done once.
+ */
+@FunctionalInterface
+public interface BucketHasher {
+
+    /**
+     * Get the bucket (0-99) for the given user
+     */
+    int bucket(String userId);
+}
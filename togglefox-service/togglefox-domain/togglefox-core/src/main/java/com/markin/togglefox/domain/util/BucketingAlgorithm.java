@@ -0,0 +1,48 @@
+package com.markin.togglefox.domain.util;
+
+/**
+ * Hash algorithms available for percentage rollout bucketing.
+ *
+ * Changing a flag's algorithm reassigns users to different buckets,
+ * so flags created before MURMUR3 was introduced keep LEGACY_SHA256.
+ */
+public enum BucketingAlgorithm {
+
+    /**
+     * Seeded MurmurHash3 over the user ID characters; allocation-free
+     */
+    MURMUR3 {
+        @Override
+        public BucketHasher forFlag(String flagId) {
+            int seed = UserHashUtil.flagSeed(flagId);
+            return userId -> UserHashUtil.murmur3Bucket(userId, seed);
+        }
+    },
+
+    /**
+     * Original SHA-256 of "userId:flagId"; kept so existing rollouts do not reshuffle
+     */
+    LEGACY_SHA256 {
+        @Override
+        public BucketHasher forFlag(String flagId) {
+            return userId -> UserHashUtil.hashUser(userId, flagId);
+        }
+    };
+
+    /**
+     * Create a hasher bound to the given flag
+     */
+    public abstract BucketHasher forFlag(String flagId);
+
+    public static BucketingAlgorithm fromName(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Bucketing algorithm cannot be null");
+        }
+        for (BucketingAlgorithm algorithm : values()) {
+            if (algorithm.name().equalsIgnoreCase(name.trim())) {
+                return algorithm;
+            }
+        }
+        throw new IllegalArgumentException("Unknown bucketing algorithm: " + name);
+    }
+}
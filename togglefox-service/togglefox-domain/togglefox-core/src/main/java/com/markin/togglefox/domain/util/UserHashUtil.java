@@ -6,12 +6,23 @@ import java.security.NoSuchAlgorithmException;
 
 public final class UserHashUtil {
 
+    private static final int FLAG_SEED = 0x5f3759df;
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            return null;
+        }
+    });
+
     private UserHashUtil() {
     }
 
     /**
      * Hash a user ID and flag ID combination to produce a consistent
      * percentage value (0-99) for rollout decisions.
+     * This is the legacy SHA-256 bucketing, see {@link BucketingAlgorithm#LEGACY_SHA256}.
      *
      * @param userId The user identifier
      * @param flagId The feature flag identifier
@@ -26,9 +37,9 @@ public final class UserHashUtil {
         // can have different rollout results for the same user
         String combined = userId + ":" + flagId;
 
-        try {
-            // Use SHA-256 for consistent, uniform distribution
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        // Use SHA-256 for consistent, uniform distribution
+        MessageDigest digest = SHA_256.get();
+        if (digest != null) {
             byte[] hashBytes = digest.digest(combined.getBytes(StandardCharsets.UTF_8));
 
             // Convert first 4 bytes to a positive integer
@@ -41,11 +52,72 @@ public final class UserHashUtil {
 
             // Map to 0-99 range
             return hash % 100;
+        }
 
-        } catch (NoSuchAlgorithmException e) {
-            // SHA-256 should always be available, but fallback to simpler hash
-            return Math.abs(combined.hashCode()) % 100;
+        // SHA-256 should always be available, but fallback to simpler hash
+        return Math.abs(combined.hashCode()) % 100;
+    }
+
+    /**
+     * Compute the MurmurHash3 seed for a flag. Computed once per flag
+     * so each flag buckets users independently.
+     */
+    public static int flagSeed(String flagId) {
+        if (flagId == null) {
+            throw new IllegalArgumentException("Flag ID cannot be null");
+        }
+        return murmur3(flagId, FLAG_SEED);
+    }
+
+    /**
+     * Map a user to a bucket (0-99) using MurmurHash3 seeded with {@link #flagSeed}.
+     * Works directly on the characters, so no intermediate strings or arrays are allocated.
+     */
+    public static int murmur3Bucket(CharSequence userId, int flagSeed) {
+        if (userId == null) {
+            throw new IllegalArgumentException("User ID cannot be null");
+        }
+        int hash = murmur3(userId, flagSeed);
+        // Multiply-shift maps the unsigned 32-bit hash onto 0-99 without modulo bias
+        return (int) (((hash & 0xFFFFFFFFL) * 100) >>> 32);
+    }
+
+    /**
+     * MurmurHash3 (x86, 32-bit) over UTF-16 code units, two characters per block
+     */
+    public static int murmur3(CharSequence value, int seed) {
+        int h1 = seed;
+        int length = value.length();
+
+        for (int i = 1; i < length; i += 2) {
+            int k1 = value.charAt(i - 1) | (value.charAt(i) << 16);
+            h1 ^= mixK1(k1);
+            h1 = Integer.rotateLeft(h1, 13);
+            h1 = h1 * 5 + 0xe6546b64;
         }
+
+        if ((length & 1) == 1) {
+            h1 ^= mixK1(value.charAt(length - 1));
+        }
+
+        return finalizeMix(h1, 2 * length);
+    }
+
+    private static int mixK1(int k1) {
+        k1 *= 0xcc9e2d51;
+        k1 = Integer.rotateLeft(k1, 15);
+        k1 *= 0x1b873593;
+        return k1;
+    }
+
+    private static int finalizeMix(int h1, int length) {
+        h1 ^= length;
+        h1 ^= h1 >>> 16;
+        h1 *= 0x85ebca6b;
+        h1 ^= h1 >>> 13;
+        h1 *= 0xc2b2ae35;
+        h1 ^= h1 >>> 16;
+        return h1;
     }
 
     /**
@@ -54,6 +126,15 @@ public final class UserHashUtil {
      */
     public static boolean isUniformDistribution(String[] userIds, String flagId,
                                                 double tolerance) {
+        return isUniformDistribution(userIds, BucketingAlgorithm.LEGACY_SHA256.forFlag(flagId), tolerance);
+    }
+
+    /**
+     * Validate that a bucket hasher produces uniform distribution
+     * (useful for testing)
+     */
+    public static boolean isUniformDistribution(String[] userIds, BucketHasher hasher,
+                                                double tolerance) {
         if (userIds.length < 1000) {
             throw new IllegalArgumentException("Need at least 1000 users for meaningful distribution test");
         }
@@ -61,7 +142,7 @@ public final class UserHashUtil {
         int[] buckets = new int[10]; // 0-9, 10-19, ..., 90-99
 
         for (String userId : userIds) {
-            int hash = hashUser(userId, flagId);
+            int hash = hasher.bucket(userId);
             buckets[hash / 10]++;
         }
 
@@ -0,0 +1,96 @@
+package com.markin.togglefox.domain;
+
+import com.markin.togglefox.domain.model.EvaluationContext;
+import com.markin.togglefox.domain.model.EvaluationReason;
+import com.markin.togglefox.domain.model.FeatureFlagId;
+import com.markin.togglefox.domain.model.FlagEvaluationResult;
+import com.markin.togglefox.domain.strategy.AttributeBasedStrategy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AttributeBasedStrategyTest {
+
+    private final FeatureFlagId flagId = FeatureFlagId.of("attribute-flag");
+
+    @Test
+    @DisplayName("Should match when every attribute rule is satisfied")
+    void shouldMatchWhenAllRulesSatisfied() {
+        // Given
+        Map<String, Set<Object>> rules = new HashMap<>();
+        rules.put("country", Set.of("GH", "NG", "KE"));
+        rules.put("plan", Set.of("pro"));
+        rules.put("age", Set.of(18, 21, 30));
+        rules.put("accountId", Set.of(10_000_000_000L, 20_000_000_000L));
+        AttributeBasedStrategy strategy = new AttributeBasedStrategy(flagId, rules);
+
+        EvaluationContext context = EvaluationContext.forUserWithAttributes("user123", Map.of(
+                "country", "NG", "plan", "pro", "age", 21, "accountId", 20_000_000_000L));
+
+        // When
+        FlagEvaluationResult result = strategy.evaluate(context, false);
+
+        // Then
+        assertThat(result.isEnabled()).isTrue();
+        assertThat(result.getReasonCode()).isEqualTo(EvaluationReason.RULES_MATCHED);
+    }
+
+    @Test
+    @DisplayName("Should fail when any attribute rule is missing or unsatisfied")
+    void shouldFailWhenAnyRuleUnsatisfied() {
+        // Given
+        Map<String, Set<Object>> rules = new HashMap<>();
+        rules.put("country", Set.of("GH", "NG"));
+        rules.put("age", Set.of(18, 21));
+        AttributeBasedStrategy strategy = new AttributeBasedStrategy(flagId, rules);
+
+        // When
+        FlagEvaluationResult wrongValue = strategy.evaluate(
+                EvaluationContext.forUserWithAttributes("user123", Map.of("country", "GH", "age", 40)));
+        FlagEvaluationResult missing = strategy.evaluate(
+                EvaluationContext.forUserWithAttributes("user123", Map.of("age", 18)));
+
+        // Then
+        assertThat(wrongValue.isEnabled()).isFalse();
+        assertThat(wrongValue.getReasonCode()).isEqualTo(EvaluationReason.RULES_NOT_MATCHED);
+        assertThat(wrongValue.getReason()).contains("age=40");
+        assertThat(missing.isEnabled()).isFalse();
+        assertThat(missing.getReason()).contains("Missing attribute: country");
+    }
+
+    @Test
+    @DisplayName("Should keep value types distinct and honour null values")
+    void shouldKeepSetMembershipSemantics() {
+        // Given
+        Set<Object> betaValues = new HashSet<>();
+        betaValues.add(null);
+        betaValues.add(true);
+        Map<String, Set<Object>> rules = new HashMap<>();
+        rules.put("age", Set.of(18, 21));
+        rules.put("beta", betaValues);
+        AttributeBasedStrategy strategy = new AttributeBasedStrategy(flagId, rules);
+
+        Map<String, Object> nullBeta = new HashMap<>();
+        nullBeta.put("age", 18);
+        nullBeta.put("beta", null);
+
+        // When
+        FlagEvaluationResult longAge = strategy.evaluate(
+                EvaluationContext.forUserWithAttributes("user123", Map.of("age", 18L, "beta", true)), false);
+        FlagEvaluationResult explicitNull = strategy.evaluate(
+                EvaluationContext.forUserWithAttributes("user123", nullBeta), false);
+        FlagEvaluationResult absentBeta = strategy.evaluate(
+                EvaluationContext.forUserWithAttributes("user123", Map.of("age", 18)), false);
+
+        // Then
+        assertThat(longAge.isEnabled()).isFalse();
+        assertThat(explicitNull.isEnabled()).isTrue();
+        assertThat(absentBeta.isEnabled()).isFalse();
+    }
+}
@@ -0,0 +1,80 @@
+package com.markin.togglefox.domain;
+
+import com.markin.togglefox.domain.model.EvaluationContext;
+import com.markin.togglefox.domain.model.FeatureFlagId;
+import com.markin.togglefox.domain.strategy.UserTargetingStrategy;
+import com.markin.togglefox.domain.util.CompactStringSet;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CompactStringSetTest {
+
+    @Test
+    @DisplayName("Should answer membership like a HashSet")
+    void shouldMatchHashSetMembership() {
+        // Given
+        Set<String> expected = new HashSet<>();
+        for (int i = 0; i < 10_000; i += 3) {
+            expected.add("user-" + i);
+        }
+        expected.add("usér-ü");
+        expected.add("");
+        CompactStringSet set = CompactStringSet.of(expected);
+
+        // When / Then
+        assertThat(set).hasSize(expected.size());
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(set.contains("user-" + i)).isEqualTo(expected.contains("user-" + i));
+        }
+        assertThat(set.contains("usér-ü")).isTrue();
+        assertThat(set.contains("")).isTrue();
+        assertThat(set.contains("user-")).isFalse();
+        assertThat(set.contains("user-99999")).isFalse();
+        assertThat(set.contains(42)).isFalse();
+        assertThat(set).isEqualTo(expected);
+        assertThat(set.hashCode()).isEqualTo(expected.hashCode());
+    }
+
+    @Test
+    @DisplayName("Should drop duplicates and nulls and iterate in sorted order")
+    void shouldDeduplicateAndSort() {
+        // Given
+        List<String> values = new ArrayList<>(List.of("charlie", "alpha", "bravo", "alpha"));
+        values.add(null);
+
+        // When
+        CompactStringSet set = CompactStringSet.of(values);
+
+        // Then
+        assertThat(set).containsExactly("alpha", "bravo", "charlie");
+        assertThat(set.contains(null)).isFalse();
+        assertThat(CompactStringSet.of(List.of())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should share the targeted users instead of copying them")
+    void shouldShareTargetedUsers() {
+        // Given
+        UserTargetingStrategy strategy = new UserTargetingStrategy(
+                FeatureFlagId.of("targeted-flag"), List.of("user1", "user2"));
+
+        // When
+        Set<String> users = strategy.getTargetedUsers();
+
+        // Then
+        assertThat(users).isSameAs(strategy.getTargetedUsers());
+        assertThatThrownBy(() -> users.add("user3")).isInstanceOf(UnsupportedOperationException.class);
+        assertThat(strategy.evaluate(EvaluationContext.forUser("user2")).isEnabled()).isTrue();
+        assertThat(strategy.evaluate(EvaluationContext.forUser("user3")).isEnabled()).isFalse();
+        assertThat(strategy).isEqualTo(new UserTargetingStrategy(
+                FeatureFlagId.of("targeted-flag"), Set.of("user2", "user1")));
+    }
+}
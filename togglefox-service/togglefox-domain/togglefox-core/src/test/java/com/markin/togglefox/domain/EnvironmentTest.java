@@ -0,0 +1,70 @@
+package com.markin.togglefox.domain;
+
+import com.markin.togglefox.domain.model.Environment;
+import com.markin.togglefox.domain.model.FeatureFlagId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class EnvironmentTest {
+
+    @Test
+    @DisplayName("Should return one canonical instance per known environment name")
+    void shouldReturnCanonicalInstancePerName() {
+        // Given
+        Environment loaded = Environment.interned("qa-eu");
+
+        // When
+        Environment lowerCase = Environment.of("production");
+        Environment mixedCase = Environment.of("Production");
+
+        // Then
+        assertThat(lowerCase).isSameAs(Environment.production());
+        assertThat(mixedCase).isSameAs(Environment.production());
+        assertThat(Environment.of("QA-EU")).isSameAs(loaded);
+    }
+
+    @Test
+    @DisplayName("Should not intern environment names taken from lookups")
+    void shouldNotInternLookedUpNames() {
+        // When
+        Environment first = Environment.of("Unknown-Env");
+        Environment second = Environment.of("unknown-env");
+
+        // Then
+        assertThat(first).isNotSameAs(second);
+        assertThat(first).isEqualTo(second);
+        assertThat(Environment.interned("unknown-env")).isNotSameAs(first);
+    }
+
+    @Test
+    @DisplayName("Should reject invalid environment names on every call")
+    void shouldRejectInvalidNames() {
+        // When & Then
+        assertThatThrownBy(() -> Environment.of("prod env"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Environment.of("prod env"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Environment.of(null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should return one canonical instance per loaded flag id")
+    void shouldReturnCanonicalInstancePerFlagId() {
+        // Given
+        FeatureFlagId generated = FeatureFlagId.generate();
+        FeatureFlagId loaded = FeatureFlagId.interned(new String("flag-id"));
+
+        // When
+        FeatureFlagId parsed = FeatureFlagId.of(generated.getValue());
+
+        // Then
+        assertThat(parsed).isNotSameAs(generated);
+        assertThat(parsed).isEqualTo(generated);
+        assertThat(FeatureFlagId.of("flag-id")).isSameAs(loaded);
+        assertThat(FeatureFlagId.interned("flag-id")).isSameAs(loaded);
+    }
+}
@@ -0,0 +1,92 @@
+package com.markin.togglefox.domain;
+
+import com.markin.togglefox.domain.model.EvaluationContext;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class EvaluationContextTest {
+
+    @Test
+    @DisplayName("Should look up attributes of a small attribute map")
+    void shouldLookUpAttributesOfSmallMap() {
+        // Given
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("country", "GH");
+        attributes.put("beta", null);
+
+        // When
+        EvaluationContext context = EvaluationContext.forUserWithAttributes("user123", attributes);
+
+        // Then
+        assertThat(context.getAttribute("country")).isEqualTo("GH");
+        assertThat(context.hasAttribute("beta")).isTrue();
+        assertThat(context.getAttribute("beta")).isNull();
+        assertThat(context.hasAttribute("plan")).isFalse();
+        assertThat(context.getAttributes()).isEqualTo(attributes);
+    }
+
+    @Test
+    @DisplayName("Should expose attributes as a read-only view")
+    void shouldExposeReadOnlyAttributes() {
+        // Given
+        Map<String, Object> small = Map.of("country", "GH");
+        Map<String, Object> large = new HashMap<>();
+        for (int i = 0; i < 20; i++) {
+            large.put("attribute-" + i, i);
+        }
+
+        // When
+        EvaluationContext smallContext = EvaluationContext.forUserWithAttributes("user123", small);
+        EvaluationContext largeContext = EvaluationContext.forUserWithAttributes("user123", large);
+
+        // Then
+        assertThatThrownBy(() -> smallContext.getAttributes().put("plan", "pro"))
+                .isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> largeContext.getAttributes().put("plan", "pro"))
+                .isInstanceOf(UnsupportedOperationException.class);
+        assertThat(largeContext.getAttribute("attribute-7")).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("Should leave the original context unchanged when adding an attribute")
+    void shouldLeaveOriginalUnchangedWhenAddingAttribute() {
+        // Given
+        EvaluationContext context = EvaluationContext.forUserWithAttributes("user123", Map.of("country", "GH"));
+
+        // When
+        EvaluationContext extended = context.withAttribute("plan", "pro");
+
+        // Then
+        assertThat(context.hasAttribute("plan")).isFalse();
+        assertThat(extended.getAttribute("plan")).isEqualTo("pro");
+        assertThat(extended.getAttribute("country")).isEqualTo("GH");
+    }
+
+    @Test
+    @DisplayName("Should copy a large attribute map, including null values")
+    void shouldCopyLargeAttributeMap() {
+        // Given
+        Map<String, Object> attributes = new HashMap<>();
+        for (int i = 0; i < 20; i++) {
+            attributes.put("attribute-" + i, i);
+        }
+        attributes.put("referrer", null);
+        EvaluationContext context = EvaluationContext.forUserWithAttributes("user123", attributes);
+
+        // When
+        attributes.put("attribute-7", 70);
+        attributes.put("plan", "pro");
+
+        // Then
+        assertThat(context.getAttribute("attribute-7")).isEqualTo(7);
+        assertThat(context.hasAttribute("plan")).isFalse();
+        assertThat(context.hasAttribute("referrer")).isTrue();
+        assertThat(context.getAttributes()).hasSize(21);
+    }
+}
@@ -176,6 +176,40 @@ public class FeatureFlagTest {
             assertThat(result).isNotNull();
             assertThat(result.getFlagId()).isEqualTo(flag.getId());
         }
+
+        @Test
+        @DisplayName("Should evaluate the same way through its evaluable view")
+        void shouldEvaluateTheSameWayThroughEvaluableView() {
+            // Given
+            FeatureFlag flag = createTestFlag();
+            flag.enable();
+            EvaluationContext context = EvaluationContext.forUser("user123");
+
+            // When
+            EvaluableFlag evaluable = flag.toEvaluable();
+
+            // Then
+            assertThat(evaluable.getId()).isEqualTo(flag.getId());
+            assertThat(evaluable.getName()).isEqualTo(flag.getName());
+            assertThat(evaluable.getVersion()).isEqualTo(flag.getVersion());
+            assertThat(evaluable.evaluate(context).isEnabled()).isEqualTo(flag.evaluate(context).isEnabled());
+        }
+
+        @Test
+        @DisplayName("Should not see later changes to the flag in an evaluable view")
+        void shouldNotSeeLaterChangesInEvaluableView() {
+            // Given
+            FeatureFlag flag = createTestFlag();
+            flag.enable();
+            EvaluableFlag evaluable = flag.toEvaluable();
+
+            // When
+            flag.disable();
+
+            // Then
+            assertThat(evaluable.isEnabled()).isTrue();
+            assertThat(flag.toEvaluable().isEnabled()).isFalse();
+        }
     }
 
     private FeatureFlag createTestFlag() {
@@ -1,9 +1,12 @@
 package com.markin.togglefox.domain;
 
 import com.markin.togglefox.domain.model.EvaluationContext;
+import com.markin.togglefox.domain.model.EvaluationReason;
 import com.markin.togglefox.domain.model.FeatureFlagId;
 import com.markin.togglefox.domain.model.FlagEvaluationResult;
 import com.markin.togglefox.domain.strategy.PercentageRolloutStrategy;
+import com.markin.togglefox.domain.util.BucketingAlgorithm;
+import com.markin.togglefox.domain.util.UserHashUtil;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -93,6 +96,25 @@ public class PercentageRolloutStrategyTest {
             assertThat(result1.getReason()).isEqualTo(result2.getReason());
         }
 
+        @Test
+        @DisplayName("Should return shared results with reason codes only when reasons are off")
+        void shouldReturnSharedResultsWhenReasonsAreOff() {
+            // Given
+            FeatureFlagId flagId = FeatureFlagId.generate();
+            PercentageRolloutStrategy strategy = new PercentageRolloutStrategy(flagId, 100);
+
+            // When
+            FlagEvaluationResult result1 = strategy.evaluate(EvaluationContext.forUser("user1"), false);
+            FlagEvaluationResult result2 = strategy.evaluate(EvaluationContext.forUser("user2"), false);
+            FlagEvaluationResult detailed = strategy.evaluate(EvaluationContext.forUser("user1"));
+
+            // Then
+            assertThat(result1).isSameAs(result2);
+            assertThat(result1.getReasonCode()).isEqualTo(EvaluationReason.IN_ROLLOUT);
+            assertThat(detailed.getReasonCode()).isEqualTo(EvaluationReason.IN_ROLLOUT);
+            assertThat(detailed.getReason()).contains("100% rollout (hash: ");
+        }
+
         @Test
         @DisplayName("Should distribute users according to percentage")
         void shouldDistributeUsersAccordingToPercentage() {
@@ -117,5 +139,32 @@ public class PercentageRolloutStrategyTest {
             // Allow 5% tolerance for hash distribution variance
             assertThat(actualPercentage).isBetween(20.0, 30.0);
         }
+
+        @Test
+        @DisplayName("Should keep legacy buckets when using legacy SHA-256 bucketing")
+        void shouldKeepLegacyBucketsWhenUsingLegacySha256Bucketing() {
+            // Given
+            FeatureFlagId flagId = FeatureFlagId.generate();
+            PercentageRolloutStrategy strategy =
+                    new PercentageRolloutStrategy(flagId, 40, BucketingAlgorithm.LEGACY_SHA256);
+
+            // When & Then
+            for (int i = 0; i < 200; i++) {
+                String userId = "user" + i;
+                boolean expected = UserHashUtil.hashUser(userId, flagId.getValue()) < 40;
+                assertThat(strategy.evaluate(EvaluationContext.forUser(userId)).isEnabled()).isEqualTo(expected);
+            }
+        }
+
+        @Test
+        @DisplayName("Should treat different bucketing algorithms as different strategies")
+        void shouldTreatDifferentBucketingAlgorithmsAsDifferentStrategies() {
+            // Given
+            FeatureFlagId flagId = FeatureFlagId.generate();
+
+            // When & Then
+            assertThat(new PercentageRolloutStrategy(flagId, 25, BucketingAlgorithm.MURMUR3))
+                    .isNotEqualTo(new PercentageRolloutStrategy(flagId, 25, BucketingAlgorithm.LEGACY_SHA256));
+        }
     }
 }
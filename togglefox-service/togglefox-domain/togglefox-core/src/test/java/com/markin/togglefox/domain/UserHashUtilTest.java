@@ -1,5 +1,7 @@
 package com.markin.togglefox.domain;
 
+import com.markin.togglefox.domain.util.BucketHasher;
+import com.markin.togglefox.domain.util.BucketingAlgorithm;
 import com.markin.togglefox.domain.util.UserHashUtil;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -100,6 +102,82 @@ public class UserHashUtilTest {
         }
     }
 
+    @Nested
+    @DisplayName("Bucketing Algorithms")
+    class BucketingAlgorithms {
+
+        @Test
+        @DisplayName("Should keep legacy SHA-256 buckets unchanged")
+        void shouldKeepLegacySha256BucketsUnchanged() {
+            // Given
+            BucketHasher hasher = BucketingAlgorithm.LEGACY_SHA256.forFlag("flag456");
+
+            // When & Then
+            for (int i = 0; i < 100; i++) {
+                assertThat(hasher.bucket("user" + i)).isEqualTo(UserHashUtil.hashUser("user" + i, "flag456"));
+            }
+        }
+
+        @Test
+        @DisplayName("Should return consistent murmur3 bucket in valid range")
+        void shouldReturnConsistentMurmur3BucketInValidRange() {
+            // Given
+            BucketHasher first = BucketingAlgorithm.MURMUR3.forFlag("flag456");
+            BucketHasher second = BucketingAlgorithm.MURMUR3.forFlag("flag456");
+
+            // When & Then
+            for (int i = 0; i < 100; i++) {
+                int bucket = first.bucket("user" + i);
+                assertThat(bucket).isBetween(0, 99);
+                assertThat(second.bucket("user" + i)).isEqualTo(bucket);
+            }
+        }
+
+        @Test
+        @DisplayName("Should distribute murmur3 buckets uniformly")
+        void shouldDistributeMurmur3BucketsUniformly() {
+            // Given
+            String[] userIds = new String[10000];
+            for (int i = 0; i < 10000; i++) {
+                userIds[i] = "user" + i;
+            }
+
+            // When & Then
+            boolean isUniform = UserHashUtil.isUniformDistribution(
+                    userIds, BucketingAlgorithm.MURMUR3.forFlag("test-flag"), 0.1); // 10% tolerance
+            assertThat(isUniform).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should bucket users independently per flag")
+        void shouldBucketUsersIndependentlyPerFlag() {
+            // Given
+            BucketHasher flag1 = BucketingAlgorithm.MURMUR3.forFlag("flag1");
+            BucketHasher flag2 = BucketingAlgorithm.MURMUR3.forFlag("flag2");
+
+            // When
+            int sameBucket = 0;
+            for (int i = 0; i < 1000; i++) {
+                if (flag1.bucket("user" + i) == flag2.bucket("user" + i)) {
+                    sameBucket++;
+                }
+            }
+
+            // Then - roughly 1 in 100 users should land in the same bucket by chance
+            assertThat(sameBucket).isLessThan(50);
+        }
+
+        @Test
+        @DisplayName("Should resolve algorithm by name")
+        void shouldResolveAlgorithmByName() {
+            assertThat(BucketingAlgorithm.fromName("murmur3")).isEqualTo(BucketingAlgorithm.MURMUR3);
+            assertThat(BucketingAlgorithm.fromName("LEGACY_SHA256")).isEqualTo(BucketingAlgorithm.LEGACY_SHA256);
+            assertThatThrownBy(() -> BucketingAlgorithm.fromName("md5"))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("Unknown bucketing algorithm");
+        }
+    }
+
     @Nested
     @DisplayName("Input Validation")
     class InputValidation {